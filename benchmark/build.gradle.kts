@@ -0,0 +1,48 @@
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.androidx.benchmark)
+    alias(libs.plugins.jetbrains.kotlin.android)
+}
+
+android {
+    namespace = "com.zhang.lib.http.benchmark"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 21
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    //基准测试需要在不可调试的release包上运行
+    testBuildType = "release"
+
+    buildTypes {
+        release {
+            isMinifyEnabled = false
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_1_8
+        targetCompatibility = JavaVersion.VERSION_1_8
+    }
+
+    kotlinOptions {
+        jvmTarget = "1.8"
+    }
+}
+
+dependencies {
+    androidTestImplementation(project(":lib"))
+    androidTestImplementation(libs.gson)
+    androidTestImplementation(libs.retrofit)
+    androidTestImplementation(libs.retrofit.adapter.rxjava3)
+    androidTestImplementation(libs.rxjava3)
+    androidTestImplementation(libs.kotlinx.coroutines.core)
+    androidTestImplementation(libs.okhttp3.mockwebserver)
+    androidTestImplementation(libs.androidx.junit)
+    androidTestImplementation(libs.androidx.benchmark.junit4)
+
+    androidTestAnnotationProcessor(project(":processor"))
+}
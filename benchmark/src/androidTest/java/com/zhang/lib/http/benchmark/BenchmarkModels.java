@@ -0,0 +1,65 @@
+package com.zhang.lib.http.benchmark;
+
+import com.google.gson.annotations.SerializedName;
+import com.zhang.lib.http.annotation.GenerateTypeAdapter;
+
+import java.util.List;
+
+/**
+ * 基准测试使用的数据类，结构与常见的接口返回值一致
+ *
+ * @author ZhangXiaoMing 2026-10-18 20:55 周日
+ */
+public final class BenchmarkModels {
+
+    private BenchmarkModels() {
+    }
+
+    /**
+     * 创建接口返回的JSON
+     *
+     * @param size 列表数量
+     */
+    public static String createJson(int size) {
+        StringBuilder builder = new StringBuilder("{\"code\":200,\"msg\":\"success\",\"data\":{\"page\":1,\"total\":")
+                .append(size)
+                .append(",\"list\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                builder.append(',');
+
+            builder.append("{\"id\":").append(10000 + i)
+                    .append(",\"title\":\"商品标题").append(i).append("\"")
+                    .append(",\"price\":").append(i * 1.25D)
+                    .append(",\"vip\":").append(i % 2 == 0)
+                    .append(",\"cover_url\":\"https://example.com/cover/").append(i).append(".png\"")
+                    .append(",\"tags\":[\"new\",\"hot\"]}");
+        }
+        return builder.append("]}}").toString();
+    }
+
+    @GenerateTypeAdapter
+    public static class Response {
+        public int code;
+        public String msg;
+        public PageData data;
+    }
+
+    @GenerateTypeAdapter
+    public static class PageData {
+        public int page;
+        public int total;
+        public List<Item> list;
+    }
+
+    @GenerateTypeAdapter
+    public static class Item {
+        public long id;
+        public String title;
+        public double price;
+        public boolean vip;
+        @SerializedName("cover_url")
+        public String coverUrl;
+        public List<String> tags;
+    }
+}
@@ -0,0 +1,113 @@
+package com.zhang.lib.http.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.zhang.lib.http.factory.CoroutineCallAdapterFactory
+import com.zhang.lib.http.factory.FlowCallAdapterFactory
+import com.zhang.lib.http.factory.XMConverterFactory
+import io.reactivex.rxjava3.core.Single
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.single
+import kotlinx.coroutines.runBlocking
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import retrofit2.Retrofit
+import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory
+import retrofit2.http.GET
+
+/**
+ * 协程适配器与RxJava适配器的对比基准测试，请求发送到本地的MockWebServer
+ *
+ * rxSingle使用RetrofitSDK默认的同步RxJava适配器，其他测试与它的差值即为适配器本身的开销，
+ * 结果中的allocationCount为每次请求的内存分配次数
+ *
+ * @author ZhangXiaoMing 2026-10-19 00:55 周一
+ */
+@RunWith(AndroidJUnit4::class)
+class CallAdapterBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var server: MockWebServer
+    private lateinit var api: BenchmarkApi
+
+    @Before
+    fun setUp() {
+        val json = BenchmarkModels.createJson(20)
+        server = MockWebServer()
+        server.dispatcher = object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest): MockResponse = MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(json)
+        }
+        server.start()
+
+        api = Retrofit.Builder()
+            .baseUrl(server.url("/"))
+            .addConverterFactory(XMConverterFactory.create())
+            .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+            .addCallAdapterFactory(CoroutineCallAdapterFactory.create())
+            .addCallAdapterFactory(FlowCallAdapterFactory.create())
+            .build()
+            .create(BenchmarkApi::class.java)
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun rxSingle() {
+        benchmarkRule.measureRepeated {
+            api.single().blockingGet()
+        }
+    }
+
+    @Test
+    fun suspendFunction() {
+        benchmarkRule.measureRepeated {
+            runBlocking { api.item() }
+        }
+    }
+
+    @Test
+    fun deferred() {
+        benchmarkRule.measureRepeated {
+            runBlocking { api.deferred().await() }
+        }
+    }
+
+    @Test
+    fun flow() {
+        benchmarkRule.measureRepeated {
+            runBlocking { api.flow().single() }
+        }
+    }
+
+
+    interface BenchmarkApi {
+
+        @GET("item")
+        fun single(): Single<BenchmarkModels.Response>
+
+        @GET("item")
+        suspend fun item(): BenchmarkModels.Response
+
+        @GET("item")
+        fun deferred(): Deferred<BenchmarkModels.Response>
+
+        @GET("item")
+        fun flow(): Flow<BenchmarkModels.Response>
+    }
+}
@@ -0,0 +1,64 @@
+package com.zhang.lib.http.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.zhang.lib.http.factory.XMConverterFactory;
+import com.zhang.lib.http.factory.XMGsonConverterFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * 解析器耗时基准测试，不经过网络，只测试从ResponseBody到数据类的耗时
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:10 周日
+ */
+@RunWith(AndroidJUnit4.class)
+public class ConverterBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final ByteString CONTENT = ByteString.encodeUtf8(BenchmarkModels.createJson(50));
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private final Retrofit mRetrofit = new Retrofit.Builder()
+            .baseUrl("http://localhost/")
+            .build();
+
+    @Test
+    public void xmConverterFactory() throws IOException {
+        run(XMConverterFactory.create().responseBodyConverter(BenchmarkModels.Response.class, NO_ANNOTATIONS, mRetrofit));
+    }
+
+    @Test
+    public void xmGsonResponseBodyConverter() throws IOException {
+        run(XMGsonConverterFactory.create().responseBodyConverter(BenchmarkModels.Response.class, NO_ANNOTATIONS, mRetrofit));
+    }
+
+    @Test
+    public void xmConverterFactoryString() throws IOException {
+        run(XMConverterFactory.create().responseBodyConverter(String.class, NO_ANNOTATIONS, mRetrofit));
+    }
+
+
+    private void run(Converter<ResponseBody, ?> converter) throws IOException {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            converter.convert(ResponseBody.create(CONTENT, JSON));
+        }
+    }
+}
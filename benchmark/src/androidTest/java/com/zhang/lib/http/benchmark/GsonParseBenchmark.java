@@ -0,0 +1,89 @@
+package com.zhang.lib.http.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.gson.Gson;
+import com.zhang.lib.http.factory.GeneratedTypeAdapterFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * 对比反射解析与生成TypeAdapter解析的耗时
+ * <p>
+ * firstParse为每次创建新的Gson后第一次解析的耗时，对应每个数据类第一次解析的场景
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:00 周日
+ */
+@RunWith(AndroidJUnit4.class)
+public class GsonParseBenchmark {
+
+    private static final String JSON = BenchmarkModels.createJson(50);
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void parseReflective() {
+        parse(new Gson());
+    }
+
+    @Test
+    public void parseGenerated() {
+        parse(GeneratedTypeAdapterFactory.newGson());
+    }
+
+    @Test
+    public void firstParseReflective() {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            Gson gson = new Gson();
+            state.resumeTiming();
+
+            gson.fromJson(JSON, BenchmarkModels.Response.class);
+        }
+    }
+
+    @Test
+    public void firstParseGenerated() {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            Gson gson = GeneratedTypeAdapterFactory.newGson();
+            state.resumeTiming();
+
+            gson.fromJson(JSON, BenchmarkModels.Response.class);
+        }
+    }
+
+    @Test
+    public void writeReflective() {
+        write(new Gson());
+    }
+
+    @Test
+    public void writeGenerated() {
+        write(GeneratedTypeAdapterFactory.newGson());
+    }
+
+
+    private void parse(Gson gson) {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            gson.fromJson(JSON, BenchmarkModels.Response.class);
+        }
+    }
+
+    private void write(Gson gson) {
+        BenchmarkModels.Response response = gson.fromJson(JSON, BenchmarkModels.Response.class);
+
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            gson.toJson(response);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.zhang.lib.http.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.inteceptor.HeaderInterceptor;
+import com.zhang.lib.http.inteceptor.RequestBodyTransformationInterceptor;
+import com.zhang.lib.http.inteceptor.RequestEncryptionInterceptor;
+import com.zhang.lib.http.inteceptor.ResponseDecryptInterceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.FormBody;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * 拦截器耗时基准测试，请求发送到本地的MockWebServer
+ * <p>
+ * baseline为不添加拦截器的耗时，其他测试减去baseline即为拦截器本身的耗时，
+ * 结果中的allocationCount为每次请求的内存分配次数
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:05 周日
+ */
+@RunWith(AndroidJUnit4.class)
+public class InterceptorChainBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String RESPONSE = BenchmarkModels.createJson(20);
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private final SampleAesCrypto mCrypto = new SampleAesCrypto();
+    private MockWebServer mServer;
+
+    @Before
+    public void setUp() throws IOException {
+        String encrypted = mCrypto.encryptParam("", RESPONSE);
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                boolean isEncrypted = request.getPath() != null && request.getPath().startsWith("/encrypted");
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json; charset=utf-8")
+                        .setBody(isEncrypted ? encrypted : RESPONSE);
+            }
+        });
+        mServer.start();
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            headers.put("X-Bench-Header-" + i, "value-" + i);
+        }
+        RetrofitSDK.getInstance().setHeaderBuilder(() -> headers);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RetrofitSDK.getInstance()
+                .setEncryptor(null)
+                .setDecryptor(null)
+                .setHeaderBuilder(null);
+        mServer.shutdown();
+    }
+
+    @Test
+    public void baseline() throws IOException {
+        run(createClient(), formRequest("/plain"));
+    }
+
+    @Test
+    public void bodyTransformation() throws IOException {
+        run(createClient(new RequestBodyTransformationInterceptor()), formRequest("/plain"));
+    }
+
+    @Test
+    public void header() throws IOException {
+        run(createClient(new HeaderInterceptor()), formRequest("/plain"));
+    }
+
+    @Test
+    public void requestEncryption() throws IOException {
+        RetrofitSDK.getInstance().setEncryptor(mCrypto);
+        run(createClient(new RequestEncryptionInterceptor()), jsonRequest("/plain"));
+    }
+
+    @Test
+    public void responseDecrypt() throws IOException {
+        RetrofitSDK.getInstance().setDecryptor(mCrypto);
+        run(createClient(new ResponseDecryptInterceptor()), jsonRequest("/encrypted"));
+    }
+
+    @Test
+    public void defaultChain() throws IOException {
+        RetrofitSDK.getInstance()
+                .setEncryptor(mCrypto)
+                .setDecryptor(mCrypto);
+        run(createClient(new RequestBodyTransformationInterceptor(),
+                        new HeaderInterceptor(),
+                        new RequestEncryptionInterceptor(),
+                        new ResponseDecryptInterceptor()),
+                formRequest("/encrypted"));
+    }
+
+
+    private void run(OkHttpClient client, Request request) throws IOException {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            try (Response response = client.newCall(request).execute()) {
+                response.body().string();
+            }
+        }
+    }
+
+    private OkHttpClient createClient(Interceptor... interceptors) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        for (Interceptor interceptor : interceptors) {
+            builder.addInterceptor(interceptor);
+        }
+
+        return builder.build();
+    }
+
+    private Request formRequest(String path) {
+        FormBody.Builder body = new FormBody.Builder();
+        for (int i = 0; i < 10; i++) {
+            body.add("key" + i, "value" + i);
+        }
+        body.add("page", "1").add("pageSize", "20");
+
+        return new Request.Builder()
+                .url(mServer.url(path))
+                .post(body.build())
+                .build();
+    }
+
+    private Request jsonRequest(String path) {
+        String json = "{\"data\":{\"key0\":\"value0\",\"key1\":\"value1\",\"key2\":\"value2\"},\"pageQueryReq\":{\"page\":1,\"pageSize\":20}}";
+        return new Request.Builder()
+                .url(mServer.url(path))
+                .post(RequestBody.create(json, JSON))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.zhang.lib.http.benchmark;
+
+import android.util.Base64;
+
+import com.zhang.lib.http.interfaces.IDecryptor;
+import com.zhang.lib.http.interfaces.IEncryptor;
+
+import java.nio.charset.Charset;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 基准测试使用的AES加解密，与常见的业务实现一致：AES/CBC/PKCS5Padding + Base64
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:00 周日
+ */
+public class SampleAesCrypto implements IEncryptor, IDecryptor {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+    private final SecretKeySpec mKey = new SecretKeySpec("0123456789abcdef".getBytes(UTF_8), "AES");
+    private final IvParameterSpec mIv = new IvParameterSpec("fedcba9876543210".getBytes(UTF_8));
+
+    @Override
+    public String encryptParam(String url, String params) {
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, mKey, mIv);
+            return Base64.encodeToString(cipher.doFinal(params.getBytes(UTF_8)), Base64.NO_WRAP);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String decryptResponse(String url, String responseContent) {
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, mKey, mIv);
+            return new String(cipher.doFinal(Base64.decode(responseContent, Base64.NO_WRAP)), UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -73,9 +73,18 @@ dependencies {
     implementation(libs.retrofit)
     implementation(libs.retrofit.converter.gson)
     implementation(libs.retrofit.adapter.rxjava3)
+    implementation(libs.kotlinx.coroutines.core)
     implementation(libs.okhttp3.logging.interceptor)
+    //使用ProtobufWireCodec时由使用方添加
+    compileOnly(libs.protobuf.javalite)
+    //使用BrotliDecompressor时由使用方添加
+    compileOnly(libs.brotli.dec)
+    //使用ZstdDecompressor时由使用方添加
+    compileOnly(libs.zstd.jni)
 
     implementation(libs.library.utils)
+
+    testImplementation(libs.junit)
 }
 
 publishing {
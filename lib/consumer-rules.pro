@@ -99,3 +99,22 @@
 -dontwarn javax.annotation.**
 #---------------------------------------Retrofit  end---------------------------------------
 
+
+#---------------------------------------GenerateTypeAdapter start---------------------------------------
+# 生成的TypeAdapter通过「数据类名_GsonTypeAdapter」查找，数据类和TypeAdapter的类名都不能混淆
+-keepnames @com.zhang.lib.http.annotation.GenerateTypeAdapter class *
+-keep class **_GsonTypeAdapter {
+    public <init>(com.google.gson.Gson);
+}
+-keep @interface com.zhang.lib.http.annotation.GenerateTypeAdapter
+-keepattributes RuntimeVisibleAnnotations
+#---------------------------------------GenerateTypeAdapter   end---------------------------------------
+
+#---------------------------------------WireCodec start---------------------------------------
+# ProtobufWireCodec只在使用方添加protobuf-javalite时使用
+-dontwarn com.google.protobuf.**
+# BrotliDecompressor只在使用方添加org.brotli:dec时使用
+-dontwarn org.brotli.dec.**
+# ZstdDecompressor只在使用方添加com.github.luben:zstd-jni时使用
+-dontwarn com.github.luben.zstd.**
+#---------------------------------------WireCodec   end---------------------------------------
@@ -1,46 +1,88 @@
 package com.zhang.lib.http;
 
 import android.content.Context;
+import android.os.Build;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.util.ObjectsCompat;
 
+import com.zhang.lib.http.body.DecryptResponseBody;
+import com.zhang.lib.http.body.EncryptRequestBody;
+import com.zhang.lib.http.ca.PinningTrustManager;
+import com.zhang.lib.http.ca.TlsSessionManager;
 import com.zhang.lib.http.ca.TrustCerts;
+import com.zhang.lib.http.ca.TrustHostMatcher;
 import com.zhang.lib.http.ca.TrustHostnameVerifier;
+import com.zhang.lib.http.cache.DecryptedContentCache;
+import com.zhang.lib.http.constant.RequestPriority;
+import com.zhang.lib.http.factory.CachingCallAdapterFactory;
+import com.zhang.lib.http.factory.CoalescingCallAdapterFactory;
+import com.zhang.lib.http.factory.CoroutineCallAdapterFactory;
+import com.zhang.lib.http.factory.FlowCallAdapterFactory;
+import com.zhang.lib.http.factory.NegotiatingConverterFactory;
+import com.zhang.lib.http.factory.PipelineCallAdapterFactory;
 import com.zhang.lib.http.factory.XMConverterFactory;
+import com.zhang.lib.http.inteceptor.ContentNegotiationInterceptor;
 import com.zhang.lib.http.inteceptor.HeaderInterceptor;
+import com.zhang.lib.http.inteceptor.PostResponseCacheInterceptor;
 import com.zhang.lib.http.inteceptor.RequestBodyTransformationInterceptor;
+import com.zhang.lib.http.inteceptor.RequestCompressionInterceptor;
 import com.zhang.lib.http.inteceptor.RequestEncryptionInterceptor;
+import com.zhang.lib.http.inteceptor.RequestHedgingInterceptor;
+import com.zhang.lib.http.inteceptor.ResponseDecompressionInterceptor;
 import com.zhang.lib.http.inteceptor.ResponseDecryptInterceptor;
 import com.zhang.lib.http.inteceptor.RetrofitLogInterceptor;
+import com.zhang.lib.http.metrics.MetricsEventListener;
+import com.zhang.lib.http.metrics.NetworkMetrics;
+import com.zhang.lib.http.pipeline.ComputePipeline;
+import com.zhang.lib.http.scheduler.PriorityCallFactory;
+import com.zhang.lib.http.interfaces.IDecompressor;
 import com.zhang.lib.http.interfaces.IDecryptor;
 import com.zhang.lib.http.interfaces.IEncryptor;
 import com.zhang.lib.http.interfaces.IHeaderBuilder;
+import com.zhang.lib.http.interfaces.IHeaderProvider;
+import com.zhang.lib.http.interfaces.IMetricsExporter;
 import com.zhang.lib.http.interfaces.INewRequestBodyBuilder;
 import com.zhang.lib.http.interfaces.IResponseContentAnalyzer;
+import com.zhang.lib.http.interfaces.IResponseEnvelopeAnalyzer;
+import com.zhang.lib.http.interfaces.IStreamDecryptor;
+import com.zhang.lib.http.interfaces.IStreamEncryptor;
+import com.zhang.lib.http.interfaces.IWireCodec;
+import com.zhang.lib.http.utils.CallCancellation;
+import com.zhang.lib.http.utils.MediaTypes;
 import com.zhang.library.utils.CollectionUtils;
 import com.zhang.library.utils.LogUtils;
 import com.zhang.library.utils.context.ContextUtils;
 
-import java.security.SecureRandom;
+import java.io.File;
+import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
 
 import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import okhttp3.CookieJar;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
 import okhttp3.Interceptor;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.CallAdapter;
 import retrofit2.Converter;
@@ -62,6 +104,10 @@ public class RetrofitSDK {
     private static final int DEFAULT_READ_TIMEOUT = 15;
     /** 默认写入超时时间 */
     private static final int DEFAULT_WRITE_TIMEOUT = 15;
+    /** 默认最大空闲连接数，与OkHttp一致 */
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    /** 默认空闲连接保持时间，单位：毫秒，与OkHttp一致 */
+    private static final long DEFAULT_KEEP_ALIVE_DURATION = 5 * 60 * 1000;
 
 
     private static volatile RetrofitSDK instance;
@@ -73,36 +119,77 @@ public class RetrofitSDK {
 
     /** {@link Retrofit}对象合集 */
     private final Map<String, Retrofit> mRetrofitMap;
-    /** Retrofit接口api示例对象集合 */
-    private final Map<String, List<Object>> mApiMap;
+    /** Retrofit接口api示例对象集合，key为域名，value的key为接口类 */
+    private final Map<String, Map<Class<?>, Object>> mApiMap;
+    /** 创建{@link Retrofit}、接口api示例对象的锁，只在缓存未命中时使用 */
+    private final Object mCreateLock = new Object();
+
+    /** {@link Retrofit}对象创建次数 */
+    private final AtomicInteger mRetrofitCreateCount = new AtomicInteger();
+    /** {@link Retrofit}对象创建累计耗时，单位：纳秒 */
+    private final AtomicLong mRetrofitCreateNanos = new AtomicLong();
+    /** 接口api示例对象创建次数 */
+    private final AtomicInteger mApiCreateCount = new AtomicInteger();
+    /** 接口api示例对象创建累计耗时，单位：纳秒 */
+    private final AtomicLong mApiCreateNanos = new AtomicLong();
 
     /** 信任域名列表 */
     @NonNull
     private final List<String> mTrustUrlList;
+    /** 信任域名匹配器，信任域名列表变化时整体替换 */
+    @NonNull
+    private volatile TrustHostMatcher mTrustHostMatcher = TrustHostMatcher.EMPTY;
     private OkHttpClient mHttpClient;
+    /** TLS会话管理 */
+    private TlsSessionManager mTlsSessionManager;
+    /** 解密后的请求结果缓存 */
+    private DecryptedContentCache mDecryptedContentCache;
+    /** 合并相同请求的适配器工厂 */
+    private CoalescingCallAdapterFactory mCoalescingFactory;
+    /** 解密和解析请求结果的计算线程池 */
+    private ComputePipeline mComputePipeline;
+    /** 内存缓存解析结果的适配器工厂 */
+    private CachingCallAdapterFactory mCachingFactory;
+    /** 接口请求结果缓存拦截器 */
+    private PostResponseCacheInterceptor mPostResponseCache;
+    /** 按优先级调度请求 */
+    private PriorityCallFactory mPriorityCallFactory;
+    /** 网络耗时统计 */
+    @NonNull
+    private final NetworkMetrics mNetworkMetrics = new NetworkMetrics();
     private String mBaseUrl;
     /** 是否是正式版本 */
     private boolean isRelease;
 
     /** Header构造者 */
     private IHeaderBuilder mHeaderBuilder;
+    /** 带版本号的Header提供者 */
+    private IHeaderProvider mHeaderProvider;
     /** 加密器 */
     private IEncryptor mEncryptor;
+    /** 流式加密器 */
+    private IStreamEncryptor mStreamEncryptor;
     /** 解密器 */
     private IDecryptor mDecryptor;
+    /** 流式解密器 */
+    private IStreamDecryptor mStreamDecryptor;
+    /** 已注册的二进制数据格式，这些格式的内容不经过String加解密 */
+    private final List<IWireCodec> mWireCodecList = new CopyOnWriteArrayList<>();
     /** 请求体构造者 */
     private INewRequestBodyBuilder mRequestBodyBuilder;
     /** 请求结果分析器 */
     private IResponseContentAnalyzer mResponseAnalyzer;
+    /** 请求结果外层字段分析器 */
+    private IResponseEnvelopeAnalyzer mResponseEnvelopeAnalyzer;
 
     private RetrofitSDK() {
         mConverterFactoryList = new ArrayList<>();
         mAdapterFactoryList = new ArrayList<>();
 
-        mRetrofitMap = new HashMap<>();
-        mApiMap = new HashMap<>();
+        mRetrofitMap = new ConcurrentHashMap<>();
+        mApiMap = new ConcurrentHashMap<>();
 
-        mTrustUrlList = new ArrayList<>();
+        mTrustUrlList = new CopyOnWriteArrayList<>();
     }
 
     public static RetrofitSDK getInstance() {
@@ -132,9 +219,13 @@ public class RetrofitSDK {
                 .setReadTimeout(DEFAULT_READ_TIMEOUT * 1000)
                 .setWriteTimeout(DEFAULT_WRITE_TIMEOUT * 1000)
                 .setCacheSize(10 * 1024 * 1024)
+                .setDecryptedCacheSize(DecryptedContentCache.DEFAULT_MAX_SIZE)
+                .setMemoryCacheSize(CachingCallAdapterFactory.DEFAULT_MAX_SIZE)
                 .addInterceptor(new RequestBodyTransformationInterceptor())
                 .addInterceptor(new RetrofitLogInterceptor())
                 .addInterceptor(new HeaderInterceptor())
+                .addInterceptor(new PostResponseCacheInterceptor())
+                .addInterceptor(new RequestCompressionInterceptor())
                 .addInterceptor(new RequestEncryptionInterceptor())
                 .addInterceptor(new ResponseDecryptInterceptor());
         return init(context, host, buildParam);
@@ -154,10 +245,13 @@ public class RetrofitSDK {
         ContextUtils.set(context);
         LogUtils.init(param.isDebug, param.isDebug);
 
-        if (param.trustUrlList != null)
-            mTrustUrlList.addAll(param.trustUrlList);
-        if (!mTrustUrlList.contains(host))
-            mTrustUrlList.add(host);
+        synchronized (mTrustUrlList) {
+            if (param.trustUrlList != null)
+                mTrustUrlList.addAll(param.trustUrlList);
+            if (!mTrustUrlList.contains(host))
+                mTrustUrlList.add(host);
+            mTrustHostMatcher = TrustHostMatcher.compile(mTrustUrlList);
+        }
 
         HttpLoggingInterceptor httpLoggingInterceptor = new HttpLoggingInterceptor(message -> LogUtils.debug(TAG, message))
                 .setLevel(isRelease ? HttpLoggingInterceptor.Level.NONE : HttpLoggingInterceptor.Level.HEADERS);
@@ -170,24 +264,72 @@ public class RetrofitSDK {
 
         if (param.cacheSize > 0)
             builder.cache(new Cache(ContextUtils.get().getCacheDir(), param.cacheSize));
-
+        //只有OkHttp缓存的请求结果才会命中，AndroidKeyStore需要API 23
+        if (param.cacheSize > 0 && param.decryptedCacheSize > 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M)
+            mDecryptedContentCache = new DecryptedContentCache(new File(ContextUtils.get().getCacheDir(), "decrypted_content"), param.decryptedCacheSize);
+
+        builder.dispatcher(createDispatcher(param));
+        EventListener.Factory eventListenerFactory = param.isNetworkMetrics ? new MetricsEventListener.Factory(mNetworkMetrics) : null;
+        //对冲请求、批量请求等拦截器需要在外层请求取消时立即收到通知
+        builder.eventListenerFactory(CallCancellation.wrap(eventListenerFactory));
+        mNetworkMetrics.setExporter(param.metricsExporter, param.metricsExportInterval);
+        if (param.maxIdleConnections > 0 || param.keepAliveDuration > 0)
+            builder.connectionPool(createConnectionPool(param));
+
+        //解压拦截器在日志拦截器之前，日志中是实际发送的请求头和压缩的请求结果
+        if (!CollectionUtils.isEmpty(param.decompressorList))
+            builder.addNetworkInterceptor(new ResponseDecompressionInterceptor(param.decompressorList));
         builder.addNetworkInterceptor(httpLoggingInterceptor);
+        if (!CollectionUtils.isEmpty(param.wireCodecList)) {
+            mWireCodecList.addAll(param.wireCodecList);
+            builder.addInterceptor(new ContentNegotiationInterceptor(param.wireCodecList));
+        }
         if (!CollectionUtils.isEmpty(param.interceptorList)) {
             for (Interceptor interceptor : param.interceptorList) {
+                if (interceptor instanceof PostResponseCacheInterceptor)
+                    mPostResponseCache = (PostResponseCacheInterceptor) interceptor;
                 builder.addInterceptor(interceptor);
             }
         }
+        //对冲请求拦截器不会调用后续的拦截器，必须放在最后
+        if (param.hedgingInterceptor != null)
+            builder.addInterceptor(param.hedgingInterceptor);
 
-        builder.sslSocketFactory(getSSLSocketFactory(), new TrustCerts());
+        mTlsSessionManager = createTlsSessionManager(param);
+        builder.sslSocketFactory(mTlsSessionManager.getSocketFactory(), mTlsSessionManager.getTrustManager());
         builder.hostnameVerifier(new TrustHostnameVerifier());
 
         mHttpClient = builder.build();
+        if (param.isPriorityScheduling)
+            mPriorityCallFactory = new PriorityCallFactory(mHttpClient, param.priorityMaxRequests,
+                    param.priorityLimits, param.priorityAgingInterval, param.isPrioritySyncScheduling);
 
+        //XMConverterFactory可以解析所有类型，二进制格式的解析工厂必须在它之前
+        if (!CollectionUtils.isEmpty(param.wireCodecList))
+            mConverterFactoryList.add(NegotiatingConverterFactory.create(param.wireCodecList));
         mConverterFactoryList.add(XMConverterFactory.create());
         if (param.converterFactoryList != null)
             mConverterFactoryList.addAll(param.converterFactoryList);
 
+        //计算线程池适配器向Retrofit声明解析类型为ResponseBody，必须在所有适配器之前
+        if (param.isComputePipeline) {
+            mComputePipeline = new ComputePipeline();
+            mAdapterFactoryList.add(PipelineCallAdapterFactory.create(mComputePipeline));
+        }
+        //缓存命中时不需要合并请求，缓存适配器在合并适配器之前
+        if (param.memoryCacheSize > 0) {
+            mCachingFactory = CachingCallAdapterFactory.create(param.memoryCacheSize);
+            mAdapterFactoryList.add(mCachingFactory);
+            //统计解析时读取的字节数，必须在所有解析工厂之前
+            mConverterFactoryList.add(0, mCachingFactory.getConverterFactory());
+        }
+        if (param.isRequestCoalescing) {
+            mCoalescingFactory = CoalescingCallAdapterFactory.create();
+            mAdapterFactoryList.add(mCoalescingFactory);
+        }
         mAdapterFactoryList.add(RxJava3CallAdapterFactory.create());
+        mAdapterFactoryList.add(CoroutineCallAdapterFactory.create());
+        mAdapterFactoryList.add(FlowCallAdapterFactory.create());
         if (param.adapterFactoryList != null)
             mAdapterFactoryList.addAll(param.adapterFactoryList);
 
@@ -197,6 +339,32 @@ public class RetrofitSDK {
         return this;
     }
 
+    /**
+     * 创建请求调度器，未设置的参数使用OkHttp的默认值
+     *
+     * @param param 构造参数
+     */
+    private Dispatcher createDispatcher(BuildParam param) {
+        Dispatcher dispatcher = param.executorService == null ? new Dispatcher() : new Dispatcher(param.executorService);
+        if (param.maxRequests > 0)
+            dispatcher.setMaxRequests(param.maxRequests);
+        if (param.maxRequestsPerHost > 0)
+            dispatcher.setMaxRequestsPerHost(param.maxRequestsPerHost);
+
+        return dispatcher;
+    }
+
+    /**
+     * 创建连接池，未设置的参数使用OkHttp的默认值：5个空闲连接，保持5分钟
+     *
+     * @param param 构造参数
+     */
+    private ConnectionPool createConnectionPool(BuildParam param) {
+        int maxIdleConnections = param.maxIdleConnections > 0 ? param.maxIdleConnections : DEFAULT_MAX_IDLE_CONNECTIONS;
+        long keepAliveDuration = param.keepAliveDuration > 0 ? param.keepAliveDuration : DEFAULT_KEEP_ALIVE_DURATION;
+        return new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * 添加请求头构造器
      *
@@ -207,6 +375,16 @@ public class RetrofitSDK {
         return this;
     }
 
+    /**
+     * 设置带版本号的请求头提供者，设置后优先于{@link #setHeaderBuilder(IHeaderBuilder)}使用
+     *
+     * @param provider 提供者
+     */
+    public RetrofitSDK setHeaderProvider(IHeaderProvider provider) {
+        this.mHeaderProvider = provider;
+        return this;
+    }
+
     /**
      * 设置加密器
      *
@@ -217,6 +395,16 @@ public class RetrofitSDK {
         return this;
     }
 
+    /**
+     * 设置流式加密器，设置后优先于{@link #setEncryptor(IEncryptor)}使用
+     *
+     * @param encryptor 加密器
+     */
+    public RetrofitSDK setStreamEncryptor(IStreamEncryptor encryptor) {
+        this.mStreamEncryptor = encryptor;
+        return this;
+    }
+
     /**
      * 设置解密器
      *
@@ -227,6 +415,16 @@ public class RetrofitSDK {
         return this;
     }
 
+    /**
+     * 设置流式解密器，设置后优先于{@link #setDecryptor(IDecryptor)}使用
+     *
+     * @param decryptor 解密器
+     */
+    public RetrofitSDK setStreamDecryptor(IStreamDecryptor decryptor) {
+        this.mStreamDecryptor = decryptor;
+        return this;
+    }
+
     /**
      * 设置解密器
      *
@@ -247,6 +445,16 @@ public class RetrofitSDK {
         return this;
     }
 
+    /**
+     * 设置请求结果外层字段分析器，在Gson解析请求结果的同时提取字段，不需要复制整个请求结果
+     *
+     * @param analyzer 分析器
+     */
+    public RetrofitSDK setResponseEnvelopeAnalyzer(IResponseEnvelopeAnalyzer analyzer) {
+        mResponseEnvelopeAnalyzer = analyzer;
+        return this;
+    }
+
 
     /**
      * 生成请求接口类对象
@@ -267,32 +475,38 @@ public class RetrofitSDK {
      */
     @SuppressWarnings("unchecked")
     public <T> T create(String baseUrl, Class<T> clazz) {
-        List<Object> apiList = mApiMap.get(baseUrl);
-        if (apiList == null) {
-            apiList = new ArrayList<>();
-            mApiMap.put(baseUrl, apiList);
+        Map<Class<?>, Object> apiMap = mApiMap.get(baseUrl);
+        if (apiMap != null) {
+            Object api = apiMap.get(clazz);
+            if (api != null)
+                return (T) api;
         }
 
-        if (!apiList.isEmpty()) {
-            for (Object item : apiList) {
-                if (clazz.isAssignableFrom(item.getClass()))
-                    return (T) item;
+        synchronized (mCreateLock) {
+            apiMap = mApiMap.get(baseUrl);
+            if (apiMap == null) {
+                apiMap = new ConcurrentHashMap<>();
+                mApiMap.put(baseUrl, apiMap);
             }
-        }
 
-        Retrofit retrofit = mRetrofitMap.get(baseUrl);
-        if (retrofit != null) {
-            T api = retrofit.create(clazz);
-            apiList.add(api);
-            return api;
-        }
+            Object api = apiMap.get(clazz);
+            if (api != null)
+                return (T) api;
 
-        retrofit = createRetrofit(baseUrl);
-        mRetrofitMap.put(baseUrl, retrofit);
+            Retrofit retrofit = mRetrofitMap.get(baseUrl);
+            if (retrofit == null) {
+                retrofit = createRetrofit(baseUrl);
+                mRetrofitMap.put(baseUrl, retrofit);
+            }
 
-        T api = retrofit.create(clazz);
-        apiList.add(api);
-        return api;
+            long start = System.nanoTime();
+            T created = retrofit.create(clazz);
+            mApiCreateNanos.addAndGet(System.nanoTime() - start);
+            mApiCreateCount.incrementAndGet();
+
+            apiMap.put(clazz, created);
+            return created;
+        }
     }
 
     /**
@@ -301,9 +515,21 @@ public class RetrofitSDK {
      * @param baseUrl 域名
      */
     private Retrofit createRetrofit(String baseUrl) {
+        long start = System.nanoTime();
+        try {
+            return buildRetrofit(baseUrl);
+        } finally {
+            mRetrofitCreateNanos.addAndGet(System.nanoTime() - start);
+            mRetrofitCreateCount.incrementAndGet();
+        }
+    }
+
+    private Retrofit buildRetrofit(String baseUrl) {
         Retrofit.Builder builder = new Retrofit.Builder()
                 .baseUrl(baseUrl)
                 .client(mHttpClient);
+        if (mPriorityCallFactory != null)
+            builder.callFactory(mPriorityCallFactory);
 //                .addConverterFactory(GsonConverterFactory.create())
 //                .addConverterFactory(XMGsonConverterFactory.create())
 //                .addConverterFactory(XMConverterFactory.create())
@@ -339,9 +565,16 @@ public class RetrofitSDK {
         return mRetrofitMap.get(baseUrl);
     }
 
+    /** 信任域名列表，不可修改，需要通过{@link #addTrustUrl(String...)}添加 */
     @NonNull
     public List<String> getTrustUrlList() {
-        return mTrustUrlList;
+        return Collections.unmodifiableList(mTrustUrlList);
+    }
+
+    /** 信任域名匹配器 */
+    @NonNull
+    public TrustHostMatcher getTrustHostMatcher() {
+        return mTrustHostMatcher;
     }
 
     /**
@@ -350,7 +583,98 @@ public class RetrofitSDK {
      * @param url 域名
      */
     public void addTrustUrl(String... url) {
-        mTrustUrlList.addAll(Arrays.asList(url));
+        synchronized (mTrustUrlList) {
+            mTrustUrlList.addAll(Arrays.asList(url));
+            mTrustHostMatcher = TrustHostMatcher.compile(mTrustUrlList);
+        }
+    }
+
+    /** {@link Retrofit}对象创建次数 */
+    public int getRetrofitCreateCount() {
+        return mRetrofitCreateCount.get();
+    }
+
+    /** {@link Retrofit}对象创建累计耗时，单位：纳秒 */
+    public long getRetrofitCreateNanos() {
+        return mRetrofitCreateNanos.get();
+    }
+
+    /** 接口api示例对象创建次数 */
+    public int getApiCreateCount() {
+        return mApiCreateCount.get();
+    }
+
+    /** 接口api示例对象创建累计耗时，单位：纳秒 */
+    public long getApiCreateNanos() {
+        return mApiCreateNanos.get();
+    }
+
+    /** TLS会话管理，可以获取握手次数与会话复用率 */
+    @Nullable
+    public TlsSessionManager getTlsSessionManager() {
+        return mTlsSessionManager;
+    }
+
+    /** 合并相同请求的适配器工厂，可以获取被合并的请求数量，未开启时为空 */
+    @Nullable
+    public CoalescingCallAdapterFactory getCoalescingCallAdapterFactory() {
+        return mCoalescingFactory;
+    }
+
+    /** 解密后的请求结果缓存，未开启或者API 23以下时为空 */
+    @Nullable
+    public DecryptedContentCache getDecryptedContentCache() {
+        return mDecryptedContentCache;
+    }
+
+    /** 按优先级调度请求，可以获取每个优先级的排队耗时，未开启时为空 */
+    @Nullable
+    public PriorityCallFactory getPriorityCallFactory() {
+        return mPriorityCallFactory;
+    }
+
+    /** 解密和解析请求结果的计算线程池，可以获取队列长度，未开启时为空 */
+    @Nullable
+    public ComputePipeline getComputePipeline() {
+        return mComputePipeline;
+    }
+
+    /** 内存缓存解析结果的适配器工厂，可以获取命中次数和清空缓存，未开启时为空 */
+    @Nullable
+    public CachingCallAdapterFactory getCachingCallAdapterFactory() {
+        return mCachingFactory;
+    }
+
+    /** 接口请求结果缓存拦截器，可以获取命中次数，切换账号时清空缓存，未添加时为空 */
+    @Nullable
+    public PostResponseCacheInterceptor getPostResponseCacheInterceptor() {
+        return mPostResponseCache;
+    }
+
+    /** 按域名和接口统计的网络耗时，包括DNS、连接、TLS、写入请求、首字节、读取结果等阶段 */
+    @NonNull
+    public NetworkMetrics getNetworkMetrics() {
+        return mNetworkMetrics;
+    }
+
+    /** 正在排队等待的异步请求数量 */
+    public int getQueuedCallsCount() {
+        return mHttpClient == null ? 0 : mHttpClient.dispatcher().queuedCallsCount();
+    }
+
+    /** 正在执行的请求数量（包含同步请求） */
+    public int getRunningCallsCount() {
+        return mHttpClient == null ? 0 : mHttpClient.dispatcher().runningCallsCount();
+    }
+
+    /** 连接池中的连接数量 */
+    public int getConnectionCount() {
+        return mHttpClient == null ? 0 : mHttpClient.connectionPool().connectionCount();
+    }
+
+    /** 连接池中的空闲连接数量 */
+    public int getIdleConnectionCount() {
+        return mHttpClient == null ? 0 : mHttpClient.connectionPool().idleConnectionCount();
     }
 
     /** 是否是正式版本 */
@@ -375,6 +699,18 @@ public class RetrofitSDK {
         return getEncryptor().encryptParam(url, params);
     }
 
+    /**
+     * 流式参数加密
+     *
+     * @param url  请求链接
+     * @param body 请求参数
+     *
+     * @return 边写边加密的请求体
+     */
+    public RequestBody encrypt(@NonNull String url, @NonNull RequestBody body) {
+        return new EncryptRequestBody(body, url, mStreamEncryptor);
+    }
+
     /**
      * 解密请求结果
      *
@@ -387,6 +723,43 @@ public class RetrofitSDK {
         return getDecryptor().decryptResponse(url, content);
     }
 
+    /**
+     * 流式解密请求结果
+     *
+     * @param url  请求链接
+     * @param body 请求结果
+     *
+     * @return 边读边解密的请求结果
+     */
+    public ResponseBody decrypt(@NonNull String url, @NonNull ResponseBody body) {
+        return new DecryptResponseBody(body, url, mStreamDecryptor);
+    }
+
+
+    /**
+     * 内容类型是否是已注册的二进制数据格式
+     *
+     * @param contentType 内容类型
+     */
+    public boolean isWireCodecType(@Nullable MediaType contentType) {
+        for (IWireCodec codec : mWireCodecList) {
+            if (MediaTypes.isSameType(codec.mediaType(), contentType))
+                return true;
+        }
+
+        return false;
+    }
+
+    /** 是否有带版本号的Header提供者 */
+    public boolean hasHeaderProvider() {
+        return mHeaderProvider != null;
+    }
+
+    /** 获取带版本号的Header提供者 */
+    @Nullable
+    public IHeaderProvider getHeaderProvider() {
+        return mHeaderProvider;
+    }
 
     private IHeaderBuilder getHeaderBuilder() {
         if (mHeaderBuilder == null) {
@@ -400,20 +773,37 @@ public class RetrofitSDK {
         return mEncryptor != null && mEncryptor != mDefaultEncryptor;
     }
 
+    public boolean hasStreamEncryptor() {
+        return mStreamEncryptor != null;
+    }
+
     public boolean hasDecryptor() {
         return mDecryptor != null && mDecryptor != mDefaultDecryptor;
     }
 
-    private SSLSocketFactory getSSLSocketFactory() {
+    public boolean hasStreamDecryptor() {
+        return mStreamDecryptor != null;
+    }
+
+    /**
+     * 创建TLS会话管理，默认信任所有证书，设置使用系统证书校验或者锁定公钥后才会校验证书
+     *
+     * @param param 构造参数
+     */
+    @Nullable
+    private TlsSessionManager createTlsSessionManager(BuildParam param) {
+        //不校验证书时服务器可以在证书链中附带被锁定的证书，锁定公钥必须同时使用系统证书校验
+        if (!CollectionUtils.isEmpty(param.certificatePinList) && !param.useSystemTrust)
+            throw new IllegalStateException("Certificate pins require setUseSystemTrust(true)");
+
+        //初始化失败时不能忽略，否则锁定的公钥和会话缓存设置都不会生效
         try {
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            sslContext.init(null, new TrustManager[]{new TrustCerts()}, new SecureRandom());
-            return sslContext.getSocketFactory();
-        } catch (Exception e) {
-            e.printStackTrace();
+            X509TrustManager delegate = param.useSystemTrust ? PinningTrustManager.systemDefault() : new TrustCerts();
+            X509TrustManager trustManager = PinningTrustManager.create(delegate, param.certificatePinList);
+            return new TlsSessionManager(trustManager, param.sslSessionCacheSize, param.sslSessionTimeout);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create TLS session manager", e);
         }
-
-        return (SSLSocketFactory) SSLSocketFactory.getDefault();
     }
 
     private IEncryptor getEncryptor() {
@@ -444,6 +834,17 @@ public class RetrofitSDK {
         return mRequestBodyBuilder.createRequestBody(paramMap);
     }
 
+    /** 是否有请求结果分析器 */
+    public boolean hasResponseAnalyzer() {
+        return mResponseAnalyzer != null;
+    }
+
+    /** 获取请求结果外层字段分析器 */
+    @Nullable
+    public IResponseEnvelopeAnalyzer getResponseEnvelopeAnalyzer() {
+        return mResponseEnvelopeAnalyzer;
+    }
+
     /**
      * 设置请求结果分析器
      *
@@ -488,6 +889,8 @@ public class RetrofitSDK {
         long writeTimeout;
         /** 缓存内存大小，单位：B */
         long cacheSize;
+        /** 解密后的请求结果缓存大小，单位：B */
+        long decryptedCacheSize;
         /** 拦截器列表 */
         List<Interceptor> interceptorList;
         /** 信任域名列表 */
@@ -498,6 +901,52 @@ public class RetrofitSDK {
         List<Converter.Factory> converterFactoryList;
         /** 请求适配器工厂列表 */
         List<CallAdapter.Factory> adapterFactoryList;
+        /** 最大同时请求数量，小于等于0时使用OkHttp默认值64 */
+        int maxRequests;
+        /** 每个域名最大同时请求数量，小于等于0时使用OkHttp默认值5 */
+        int maxRequestsPerHost;
+        /** 连接池最大空闲连接数，小于等于0时使用OkHttp默认值5 */
+        int maxIdleConnections;
+        /** 空闲连接保持时间，单位：毫秒，小于等于0时使用OkHttp默认值5分钟 */
+        long keepAliveDuration;
+        /** 异步请求线程池，为空时使用OkHttp默认线程池 */
+        ExecutorService executorService;
+        /** TLS客户端会话缓存数量，小于等于0时使用系统默认值 */
+        int sslSessionCacheSize;
+        /** TLS客户端会话缓存有效期，单位：秒，小于等于0时使用系统默认值 */
+        int sslSessionTimeout;
+        /** 是否使用系统证书校验服务器证书，默认信任所有证书 */
+        boolean useSystemTrust;
+        /** 锁定的公钥列表 */
+        List<String> certificatePinList;
+        /** 对冲请求拦截器 */
+        RequestHedgingInterceptor hedgingInterceptor;
+        /** 是否合并同时发起的相同请求 */
+        boolean isRequestCoalescing;
+        /** 是否按优先级调度请求 */
+        boolean isPriorityScheduling;
+        /** 按优先级调度时同时执行的请求总数，小于等于0时使用最大并发数 */
+        int priorityMaxRequests;
+        /** 每个优先级同时执行的请求数 */
+        int[] priorityLimits;
+        /** 提升一级优先级需要的排队时间，单位：毫秒 */
+        long priorityAgingInterval = PriorityCallFactory.DEFAULT_AGING_INTERVAL;
+        /** 按优先级调度时同步请求是否排队 */
+        boolean isPrioritySyncScheduling;
+        /** 是否在计算线程池中解密和解析请求结果 */
+        boolean isComputePipeline;
+        /** 内存缓存解析结果的大小，单位：B，小于等于0时不缓存 */
+        int memoryCacheSize;
+        /** 二进制数据格式列表 */
+        List<IWireCodec> wireCodecList;
+        /** 请求结果解压方式列表 */
+        List<IDecompressor> decompressorList;
+        /** 是否统计网络耗时，默认开启 */
+        boolean isNetworkMetrics = true;
+        /** 网络耗时导出 */
+        IMetricsExporter metricsExporter;
+        /** 网络耗时导出间隔，单位：毫秒 */
+        long metricsExportInterval;
 
         private BuildParam() {
         }
@@ -541,6 +990,116 @@ public class RetrofitSDK {
             return this;
         }
 
+        /**
+         * 设置解密后的请求结果缓存大小，OkHttp缓存命中或者304时直接使用解密后的内容，需要同时设置{@link #setCacheSize(long)}
+         *
+         * @param decryptedCacheSize 缓存大小，单位：B，小于等于0时不缓存
+         */
+        public BuildParam setDecryptedCacheSize(long decryptedCacheSize) {
+            this.decryptedCacheSize = decryptedCacheSize;
+            return this;
+        }
+
+        /**
+         * 设置最大同时请求数量，超出的异步请求会排队等待
+         *
+         * @param maxRequests 最大同时请求数量
+         */
+        public BuildParam setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * 设置每个域名最大同时请求数量，超出的异步请求会排队等待
+         *
+         * @param maxRequestsPerHost 每个域名最大同时请求数量
+         */
+        public BuildParam setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * 设置连接池最大空闲连接数
+         *
+         * @param maxIdleConnections 最大空闲连接数
+         */
+        public BuildParam setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * 设置空闲连接保持时间，单位：毫秒
+         *
+         * @param keepAliveDuration 保持时间
+         */
+        public BuildParam setKeepAliveDuration(long keepAliveDuration) {
+            this.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+
+        /**
+         * 设置异步请求线程池
+         *
+         * @param executorService 线程池
+         */
+        public BuildParam setExecutorService(ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * 设置TLS客户端会话缓存数量
+         *
+         * @param sslSessionCacheSize 缓存数量
+         */
+        public BuildParam setSslSessionCacheSize(int sslSessionCacheSize) {
+            this.sslSessionCacheSize = sslSessionCacheSize;
+            return this;
+        }
+
+        /**
+         * 设置TLS客户端会话缓存有效期，单位：秒
+         *
+         * @param sslSessionTimeout 有效期
+         */
+        public BuildParam setSslSessionTimeout(int sslSessionTimeout) {
+            this.sslSessionTimeout = sslSessionTimeout;
+            return this;
+        }
+
+        /**
+         * 设置是否使用系统证书校验服务器证书
+         *
+         * @param useSystemTrust 是否使用系统证书
+         */
+        public BuildParam setUseSystemTrust(boolean useSystemTrust) {
+            this.useSystemTrust = useSystemTrust;
+            return this;
+        }
+
+        /**
+         * 添加锁定的公钥，证书链中至少有一个证书的公钥与锁定的公钥一致才会建立连接，
+         * 需要同时{@link #setUseSystemTrust(boolean) 使用系统证书}，否则初始化时抛出异常
+         *
+         * @param pins 公钥，格式为"sha256/Base64编码的公钥SHA-256"
+         */
+        public BuildParam addCertificatePin(String... pins) {
+            if (pins != null) {
+                if (certificatePinList == null)
+                    certificatePinList = new ArrayList<>();
+
+                for (String pin : pins) {
+                    if (!certificatePinList.contains(pin))
+                        certificatePinList.add(pin);
+                }
+            }
+
+            return this;
+        }
+
         /**
          * 设置cookie配置
          *
@@ -583,6 +1142,164 @@ public class RetrofitSDK {
             return this;
         }
 
+        /**
+         * 设置对冲请求拦截器，会放在所有拦截器之后
+         *
+         * @param interceptor 拦截器
+         */
+        public BuildParam setHedgingInterceptor(RequestHedgingInterceptor interceptor) {
+            this.hedgingInterceptor = interceptor;
+            return this;
+        }
+
+        /**
+         * 设置是否合并同时发起的相同请求，只合并GET、HEAD和添加了{@link com.zhang.lib.http.annotation.Idempotent}注解的接口
+         *
+         * @param requestCoalescing 是否合并
+         */
+        public BuildParam setRequestCoalescing(boolean requestCoalescing) {
+            isRequestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * 设置是否按优先级调度请求，优先级通过{@link com.zhang.lib.http.annotation.Priority}注解设置
+         *
+         * @param priorityScheduling 是否开启
+         */
+        public BuildParam setPriorityScheduling(boolean priorityScheduling) {
+            isPriorityScheduling = priorityScheduling;
+            return this;
+        }
+
+        /**
+         * 设置按优先级调度时同时执行的请求总数
+         *
+         * @param maxRequests 请求总数，小于等于0时使用最大并发数
+         */
+        public BuildParam setPriorityMaxRequests(int maxRequests) {
+            this.priorityMaxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * 设置单个优先级同时执行的请求数，不超过请求总数
+         *
+         * @param priority    优先级
+         * @param maxRequests 请求数，小于等于0时使用默认值
+         */
+        public BuildParam setPriorityLimit(@RequestPriority int priority, int maxRequests) {
+            if (priorityLimits == null)
+                priorityLimits = new int[RequestPriority.COUNT];
+
+            priorityLimits[priority] = maxRequests;
+            return this;
+        }
+
+        /**
+         * 设置提升一级优先级需要的排队时间，避免低优先级的请求一直等待
+         *
+         * @param agingInterval 排队时间，单位：毫秒，小于等于0时不提升
+         */
+        public BuildParam setPriorityAgingInterval(long agingInterval) {
+            this.priorityAgingInterval = agingInterval;
+            return this;
+        }
+
+        /**
+         * 设置按优先级调度时同步请求是否排队，默认不排队
+         * <p>
+         * RxJava的默认适配器使用同步请求，开启后Rx请求也受并发数限制，排队时间计入请求的超时时间
+         *
+         * @param syncScheduling 是否排队
+         */
+        public BuildParam setPrioritySyncScheduling(boolean syncScheduling) {
+            isPrioritySyncScheduling = syncScheduling;
+            return this;
+        }
+
+        /**
+         * 设置是否在计算线程池中解密和解析请求结果，开启后网络线程只读取数据，
+         * 添加了{@link retrofit2.http.Streaming}注解的接口仍然在读取时解密
+         *
+         * @param computePipeline 是否开启
+         */
+        public BuildParam setComputePipeline(boolean computePipeline) {
+            isComputePipeline = computePipeline;
+            return this;
+        }
+
+        /**
+         * 设置内存缓存解析结果的大小，只缓存添加了{@link com.zhang.lib.http.annotation.MemoryCache}注解的接口
+         *
+         * @param memoryCacheSize 缓存大小，单位：B，小于等于0时不缓存
+         */
+        public BuildParam setMemoryCacheSize(int memoryCacheSize) {
+            this.memoryCacheSize = memoryCacheSize;
+            return this;
+        }
+
+        /**
+         * 添加二进制数据格式，按照添加顺序协商。
+         * 需要加解密时必须设置流式加解密，只设置了String加解密时二进制数据的请求会失败，不会以明文发出
+         *
+         * @param codecs 数据格式
+         */
+        public BuildParam addWireCodec(IWireCodec... codecs) {
+            if (codecs != null) {
+                if (wireCodecList == null)
+                    wireCodecList = new ArrayList<>();
+
+                for (IWireCodec codec : codecs) {
+                    if (codec != null && !wireCodecList.contains(codec))
+                        wireCodecList.add(codec);
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * 设置是否统计网络耗时，默认开启
+         *
+         * @param networkMetrics 是否统计
+         */
+        public BuildParam setNetworkMetrics(boolean networkMetrics) {
+            isNetworkMetrics = networkMetrics;
+            return this;
+        }
+
+        /**
+         * 设置网络耗时定时导出
+         *
+         * @param exporter 导出方式
+         * @param interval 导出间隔，单位：毫秒
+         */
+        public BuildParam setMetricsExporter(IMetricsExporter exporter, long interval) {
+            this.metricsExporter = exporter;
+            this.metricsExportInterval = interval;
+            return this;
+        }
+
+        /**
+         * 添加请求结果解压方式，例如br、zstd，gzip由OkHttp处理
+         *
+         * @param decompressors 解压方式
+         */
+        public BuildParam addDecompressor(IDecompressor... decompressors) {
+            if (decompressors != null) {
+                if (decompressorList == null)
+                    decompressorList = new ArrayList<>();
+
+                for (IDecompressor decompressor : decompressors) {
+                    if (decompressor != null && !decompressorList.contains(decompressor))
+                        decompressorList.add(decompressor);
+                }
+            }
+
+            return this;
+        }
+
         /**
          * 添加加解密白名单链接
          *
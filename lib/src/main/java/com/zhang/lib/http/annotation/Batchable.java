@@ -0,0 +1,19 @@
+package com.zhang.lib.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记接口可以与其他接口合并成一个批量请求发出，
+ * 需要添加{@link com.zhang.lib.http.inteceptor.RequestBatchingInterceptor}后才会生效
+ *
+ * @author ZhangXiaoMing 2026-10-18 19:10 周日
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Batchable {
+}
@@ -0,0 +1,27 @@
+package com.zhang.lib.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 在内存中缓存接口的请求结果，用于只读的查询接口，POST请求也可以缓存
+ * <p>
+ * 缓存的key为接口地址和加密前请求体的摘要，由{@link com.zhang.lib.http.inteceptor.PostResponseCacheInterceptor}处理。
+ * 请求体中包含时间戳等每次都变化的字段时不会命中缓存
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:20 周日
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachePolicy {
+
+    /** 缓存的有效时间，有效期内直接使用缓存，单位：秒 */
+    long maxAge();
+
+    /** 过期后仍可以使用缓存的时间，期间先返回缓存，同时在后台刷新，单位：秒 */
+    long staleWhileRevalidate() default 0;
+}
@@ -0,0 +1,29 @@
+package com.zhang.lib.http.annotation;
+
+import com.zhang.lib.http.constant.ContentEncoding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 压缩接口的请求体，需要服务器支持对应的Content-Encoding
+ * <p>
+ * 在加密之前压缩，由{@link com.zhang.lib.http.inteceptor.RequestCompressionInterceptor}处理
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:52 周日
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CompressRequest {
+
+    /** 压缩方式 */
+    @ContentEncoding
+    String encoding() default ContentEncoding.GZIP;
+
+    /** 请求体小于此长度时不压缩，单位：B */
+    long minSize() default 1024;
+}
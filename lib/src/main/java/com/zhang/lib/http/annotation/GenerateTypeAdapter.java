@@ -0,0 +1,24 @@
+package com.zhang.lib.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记数据类在编译时生成Gson的TypeAdapter，解析时不再通过反射读写字段
+ * <p>
+ * 需要添加注解处理器：annotationProcessor(project(":processor"))，Kotlin模块使用kapt。
+ * 注解处理器与lib一起发布，通过远程仓库依赖时artifactId为http-processor，版本与lib一致。
+ * 生成的类名为「类名_GsonTypeAdapter」，内部类的$替换为_，
+ * 由{@link com.zhang.lib.http.factory.GeneratedTypeAdapterFactory}自动查找。
+ * 无法生成的类（私有字段且没有getter/setter、没有无参构造、泛型类等）在编译时给出提示，运行时继续使用反射解析
+ *
+ * @author ZhangXiaoMing 2026-10-18 20:05 周日
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GenerateTypeAdapter {
+}
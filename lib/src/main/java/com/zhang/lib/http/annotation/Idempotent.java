@@ -0,0 +1,20 @@
+package com.zhang.lib.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记接口是幂等的，多次请求与一次请求的效果相同
+ * <p>
+ * GET、HEAD、PUT、DELETE、OPTIONS、TRACE默认就是幂等的，只读的POST接口需要手动添加此注解后才会重试
+ *
+ * @author ZhangXiaoMing 2026-10-18 16:48 周日
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,23 @@
+package com.zhang.lib.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 在内存中缓存接口解析后的结果，有效期内直接返回同一个对象，不读取网络、不解密也不解析
+ * <p>
+ * 由{@link com.zhang.lib.http.factory.CachingCallAdapterFactory}处理，调用方拿到的是同一个对象，不能修改
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:40 周日
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MemoryCache {
+
+    /** 缓存的有效时间，单位：秒 */
+    long maxAge();
+}
@@ -0,0 +1,26 @@
+package com.zhang.lib.http.annotation;
+
+import com.zhang.lib.http.constant.RequestPriority;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口请求的优先级，没有添加时为{@link RequestPriority#NORMAL}
+ * <p>
+ * 由{@link com.zhang.lib.http.scheduler.PriorityCallFactory}处理，
+ * 单次请求可以通过Retrofit的{@link retrofit2.http.Tag}参数传入{@link com.zhang.lib.http.scheduler.PriorityTag}覆盖
+ *
+ * @author ZhangXiaoMing 2026-10-19 01:08 周一
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Priority {
+
+    @RequestPriority
+    int value();
+}
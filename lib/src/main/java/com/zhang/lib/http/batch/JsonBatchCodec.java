@@ -0,0 +1,154 @@
+package com.zhang.lib.http.batch;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.zhang.lib.http.interfaces.IBatchCodec;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * 默认的JSON格式批量请求编解码
+ * <p>
+ * 请求：{"requests":[{"path":"/a/b?c=d","body":{...}}]}<br>
+ * 结果：{"responses":[{"code":200,"body":{...}}]}，结果顺序与请求顺序一致。
+ * 请求体直接嵌入JSON中，只支持JSON格式的请求体
+ *
+ * @author ZhangXiaoMing 2026-10-18 19:20 周日
+ */
+public class JsonBatchCodec implements IBatchCodec {
+
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Override
+    public boolean isSupported(@NonNull Request request) {
+        RequestBody body = request.body();
+        if (body == null)
+            return true;
+
+        MediaType contentType = body.contentType();
+        if (contentType == null)
+            return false;
+
+        String subtype = contentType.subtype();
+        return "json".equals(subtype) || subtype.endsWith("+json");
+    }
+
+    @NonNull
+    @Override
+    public RequestBody encode(@NonNull List<Request> requests) throws IOException {
+        Buffer buffer = new Buffer();
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(buffer.outputStream(), UTF_8));
+        writer.beginObject();
+        writer.name("requests");
+        writer.beginArray();
+        for (Request request : requests) {
+            writer.beginObject();
+
+            String query = request.url().encodedQuery();
+            writer.name("path").value(query == null ? request.url().encodedPath() : request.url().encodedPath() + "?" + query);
+
+            writer.name("body");
+            RequestBody body = request.body();
+            if (body == null) {
+                writer.nullValue();
+            } else {
+                Buffer content = new Buffer();
+                body.writeTo(content);
+                writer.jsonValue(content.readUtf8());
+            }
+
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.close();
+
+        return RequestBody.create(buffer.readByteString(), MEDIA_TYPE);
+    }
+
+    @NonNull
+    @Override
+    public List<Response> decode(@NonNull List<Request> requests, @NonNull Response batchResponse) throws IOException {
+        ResponseBody body = batchResponse.body();
+        if (body == null)
+            throw new IOException("batch response body is null");
+
+        Headers headers = batchResponse.headers().newBuilder()
+                .removeAll("Content-Length")
+                .removeAll("Content-Encoding")
+                .build();
+
+        List<Response> responses = new ArrayList<>(requests.size());
+        JsonReader reader = new JsonReader(body.charStream());
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"responses".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (responses.size() >= requests.size())
+                    throw new IOException("batch response size mismatch");
+
+                responses.add(readResponse(reader, requests.get(responses.size()), batchResponse, headers));
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+
+        if (responses.size() != requests.size())
+            throw new IOException("batch response size mismatch: " + responses.size() + " != " + requests.size());
+
+        return responses;
+    }
+
+    private Response readResponse(JsonReader reader, Request request, Response batchResponse, Headers headers) throws IOException {
+        int code = 200;
+        String content = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("code".equals(name)) {
+                code = reader.nextInt();
+            } else if ("body".equals(name) && reader.peek() != JsonToken.NULL) {
+                JsonElement element = JsonParser.parseReader(reader);
+                content = element.toString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new Response.Builder()
+                .request(request)
+                .protocol(batchResponse.protocol())
+                .code(code)
+                .message(code == 200 ? "OK" : "")
+                .headers(headers)
+                .body(ResponseBody.create(content, MEDIA_TYPE))
+                .sentRequestAtMillis(batchResponse.sentRequestAtMillis())
+                .receivedResponseAtMillis(batchResponse.receivedResponseAtMillis())
+                .build();
+    }
+}
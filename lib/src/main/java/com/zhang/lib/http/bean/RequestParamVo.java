@@ -16,6 +16,8 @@ public class RequestParamVo implements Serializable {
     private static final int DEFAULT_PAGE = 1;
     private static final int DEFAULT_PAGE_SIZE = 10;
 
+    private static final Gson GSON = new Gson();
+
     private Object data;
     private PageInfo pageQueryReq;
 
@@ -59,7 +61,7 @@ public class RequestParamVo implements Serializable {
     }
 
     public String toJsonString() {
-        return new Gson().toJson(this);
+        return GSON.toJson(this);
     }
 
     @NonNull
@@ -0,0 +1,100 @@
+package com.zhang.lib.http.body;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.interfaces.IStreamDecryptor;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * 边读边解密的请求结果
+ * <p>
+ * 第一次读取数据的时候才会包装原始数据流，解密后的长度未知
+ *
+ * @author ZhangXiaoMing 2026-10-18 10:38 周日
+ */
+public class DecryptResponseBody extends ResponseBody {
+
+    private final ResponseBody mRawBody;
+    private final String mUrl;
+    private final IStreamDecryptor mDecryptor;
+
+    private BufferedSource mSource;
+
+    public DecryptResponseBody(@NonNull ResponseBody rawBody, @NonNull String url, @NonNull IStreamDecryptor decryptor) {
+        this.mRawBody = rawBody;
+        this.mUrl = url;
+        this.mDecryptor = decryptor;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return mRawBody.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return -1L;
+    }
+
+    @NonNull
+    @Override
+    public BufferedSource source() {
+        if (mSource == null)
+            mSource = Okio.buffer(new DecryptSource());
+
+        return mSource;
+    }
+
+    @Override
+    public void close() {
+        if (mSource == null) {
+            mRawBody.close();
+            return;
+        }
+
+        try {
+            mSource.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+
+    /** 延迟创建解密流，解密器抛出的异常可以在读取的时候正常抛出 */
+    private final class DecryptSource implements Source {
+
+        private Source mDelegate;
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            if (mDelegate == null)
+                mDelegate = mDecryptor.decryptResponse(mUrl, mRawBody.source());
+
+            return mDelegate.read(sink, byteCount);
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return mRawBody.source().timeout();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (mDelegate != null)
+                mDelegate.close();
+
+            mRawBody.close();
+        }
+    }
+}
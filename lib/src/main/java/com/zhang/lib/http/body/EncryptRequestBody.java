@@ -0,0 +1,69 @@
+package com.zhang.lib.http.body;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.interfaces.IStreamEncryptor;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
+
+/**
+ * 边写边加密的请求体
+ * <p>
+ * OkHttp写入请求的时候才进行加密，明文与密文不会同时完整地存在于内存中，加密后的长度未知
+ *
+ * @author ZhangXiaoMing 2026-10-18 11:12 周日
+ */
+public class EncryptRequestBody extends RequestBody {
+
+    private final RequestBody mRawBody;
+    private final String mUrl;
+    private final IStreamEncryptor mEncryptor;
+
+    public EncryptRequestBody(@NonNull RequestBody rawBody, @NonNull String url, @NonNull IStreamEncryptor encryptor) {
+        this.mRawBody = rawBody;
+        this.mUrl = url;
+        this.mEncryptor = encryptor;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return mRawBody.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return -1L;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return mRawBody.isOneShot();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        //加密器关闭的时候只需要写出剩余的密文，不能把OkHttp的Sink一起关闭
+        Sink target = new ForwardingSink(sink) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+
+        BufferedSink encryptSink = Okio.buffer(mEncryptor.encryptParam(mUrl, target));
+        try {
+            mRawBody.writeTo(encryptSink);
+        } finally {
+            encryptSink.close();
+        }
+    }
+}
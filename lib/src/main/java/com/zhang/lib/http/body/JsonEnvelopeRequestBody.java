@@ -0,0 +1,143 @@
+package com.zhang.lib.http.body;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+
+import okhttp3.FormBody;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+/**
+ * 把表单转换成{"data":{...},"pageQueryReq":{"page":1,"pageSize":10}}格式的JSON请求体
+ * <p>
+ * 直接从表单写出JSON，不经过中间的Map、Gson和字符串。第一次使用时写入缓冲区，
+ * 之后重复写入只复制缓冲区的分段，可以提供准确的长度
+ *
+ * @author ZhangXiaoMing 2026-10-18 19:50 周日
+ */
+public class JsonEnvelopeRequestBody extends RequestBody {
+
+    public static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String KEY_PAGE = "page";
+    private static final String KEY_PAGE_SIZE = "pageSize";
+
+    private static final int DEFAULT_PAGE = 1;
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private final FormBody mForm;
+
+    private volatile Buffer mContent;
+
+    public JsonEnvelopeRequestBody(@NonNull FormBody form) {
+        this.mForm = form;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return getContent().size();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        Buffer content = getContent();
+        content.copyTo(sink.getBuffer(), 0, content.size());
+        sink.emitCompleteSegments();
+    }
+
+    private Buffer getContent() throws IOException {
+        Buffer content = mContent;
+        if (content == null) {
+            synchronized (this) {
+                content = mContent;
+                if (content == null) {
+                    content = new Buffer();
+                    writeEnvelope(content);
+                    mContent = content;
+                }
+            }
+        }
+
+        return content;
+    }
+
+    private void writeEnvelope(Buffer buffer) throws IOException {
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(buffer.outputStream(), UTF_8));
+        //与Gson默认的转义方式保持一致
+        writer.setHtmlSafe(true);
+
+        boolean hasPageInfo = false;
+        int page = DEFAULT_PAGE;
+        int pageSize = DEFAULT_PAGE_SIZE;
+
+        writer.beginObject();
+        writer.name("data");
+        writer.beginObject();
+        for (int index = 0; index < mForm.size(); index++) {
+            String key = mForm.name(index);
+            String value = mForm.value(index);
+
+            if (TextUtils.isEmpty(key)
+                    || TextUtils.isEmpty(value))
+                continue;
+
+            //与RequestParamVo的setPage()、setPageSize()一致，后出现的参数把另一个恢复为默认值
+            if (KEY_PAGE.equals(key)) {
+                page = Integer.parseInt(value);
+                pageSize = DEFAULT_PAGE_SIZE;
+                hasPageInfo = true;
+                continue;
+            }
+            if (KEY_PAGE_SIZE.equals(key)) {
+                page = DEFAULT_PAGE;
+                pageSize = Integer.parseInt(value);
+                hasPageInfo = true;
+                continue;
+            }
+
+            //相同的参数只保留最后一个
+            if (hasLaterValue(key, index))
+                continue;
+
+            writer.name(key).value(value);
+        }
+        writer.endObject();
+
+        if (hasPageInfo) {
+            writer.name("pageQueryReq");
+            writer.beginObject();
+            writer.name(KEY_PAGE).value(page);
+            writer.name(KEY_PAGE_SIZE).value(pageSize);
+            writer.endObject();
+        }
+        writer.endObject();
+        writer.close();
+    }
+
+    private boolean hasLaterValue(String key, int index) {
+        for (int next = index + 1; next < mForm.size(); next++) {
+            if (key.equals(mForm.name(next)) && !TextUtils.isEmpty(mForm.value(next)))
+                return true;
+        }
+
+        return false;
+    }
+}
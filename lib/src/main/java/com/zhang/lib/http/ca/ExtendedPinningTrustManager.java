@@ -0,0 +1,82 @@
+package com.zhang.lib.http.ca;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+/**
+ * 把握手的Socket交给系统校验器的证书锁定校验器
+ * <p>
+ * Network Security Config配置了domain-config时，系统校验器只接受带有Socket或者SSLEngine的校验方法，
+ * 这里转发这些方法，证书锁定和校验结果缓存仍然由{@link PinningTrustManager}处理
+ *
+ * @author ZhangXiaoMing 2026-10-19 10:10 周一
+ */
+@RequiresApi(Build.VERSION_CODES.N)
+public class ExtendedPinningTrustManager extends X509ExtendedTrustManager {
+
+    private final PinningTrustManager mPinning;
+    private final X509ExtendedTrustManager mDelegate;
+
+    ExtendedPinningTrustManager(@NonNull PinningTrustManager pinning, @NonNull X509ExtendedTrustManager delegate) {
+        this.mPinning = pinning;
+        this.mDelegate = delegate;
+    }
+
+    /** 证书锁定校验器，可以获取缓存命中次数 */
+    @NonNull
+    public PinningTrustManager getPinningTrustManager() {
+        return mPinning;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        mDelegate.checkClientTrusted(chain, authType, socket);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+        mDelegate.checkClientTrusted(chain, authType, engine);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        mDelegate.checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        String host = socket instanceof SSLSocket ? peerHost(((SSLSocket) socket).getHandshakeSession()) : null;
+        mPinning.checkServerTrusted(chain, host, () -> mDelegate.checkServerTrusted(chain, authType, socket));
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+        String host = engine == null ? null : peerHost(engine.getHandshakeSession());
+        mPinning.checkServerTrusted(chain, host, () -> mDelegate.checkServerTrusted(chain, authType, engine));
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        mPinning.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return mDelegate.getAcceptedIssuers();
+    }
+
+    private static String peerHost(SSLSession session) {
+        return session == null ? null : session.getPeerHost();
+    }
+}
@@ -0,0 +1,295 @@
+package com.zhang.lib.http.ca;
+
+import android.os.Build;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+import javax.security.auth.x500.X500Principal;
+
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * 支持证书锁定的证书校验器
+ * <p>
+ * 证书链先交给被代理的校验器校验，再校验证书链中是否有公钥与锁定的公钥一致。
+ * 服务器发送的证书链中可以附带任意证书，所以锁定公钥时只校验从服务器证书按签名关系连接到受信任根证书的证书链，
+ * 被代理的校验器必须真正校验证书，不能是信任所有证书的校验器。
+ * 校验通过的证书按照证书内容缓存，缓存有效期内同一张证书不需要再次校验证书链。
+ * <p>
+ * Android 7.0及以上的Network Security Config配置了domain-config时，系统校验器需要知道域名，
+ * 不能调用两个参数的校验方法，需要通过{@link #create(X509TrustManager, Collection)}创建，
+ * 系统校验器支持时返回{@link ExtendedPinningTrustManager}
+ *
+ * @author ZhangXiaoMing 2026-10-18 15:40 周日
+ */
+public class PinningTrustManager implements X509TrustManager {
+
+    private static final String PIN_PREFIX = "sha256/";
+    /** 证书链的最大长度 */
+    private static final int MAX_SIGNERS = 9;
+    /** 默认校验结果缓存数量 */
+    private static final int DEFAULT_CACHE_SIZE = 32;
+    /** 校验结果缓存最长有效期 */
+    private static final long MAX_CACHE_DURATION = TimeUnit.HOURS.toMillis(1);
+
+    private final X509TrustManager mDelegate;
+    /** 锁定的公钥SHA-256，为空时不校验 */
+    private final Set<ByteString> mPins;
+    /** 校验通过的证书SHA-256与缓存过期时间 */
+    private final LruCache<ByteString, Long> mTrustedCache;
+
+    /** 受信任的根证书，按照证书主体索引，第一次校验公钥时创建 */
+    private volatile Map<X500Principal, List<X509Certificate>> mTrustAnchors;
+
+    private final AtomicLong mCacheHitCount = new AtomicLong();
+    private final AtomicLong mCacheMissCount = new AtomicLong();
+
+    /**
+     * @param delegate 被代理的校验器
+     * @param pins     锁定的公钥，格式为"sha256/Base64编码的公钥SHA-256"
+     */
+    public PinningTrustManager(@NonNull X509TrustManager delegate, @Nullable Collection<String> pins) {
+        this(delegate, pins, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param delegate  被代理的校验器
+     * @param pins      锁定的公钥，格式为"sha256/Base64编码的公钥SHA-256"
+     * @param cacheSize 校验结果缓存数量
+     */
+    public PinningTrustManager(@NonNull X509TrustManager delegate, @Nullable Collection<String> pins, int cacheSize) {
+        this.mDelegate = delegate;
+        this.mPins = parsePins(pins);
+        this.mTrustedCache = new LruCache<>(Math.max(1, cacheSize));
+    }
+
+    /**
+     * 创建证书校验器，被代理的校验器是{@link X509ExtendedTrustManager}时把域名一起交给它校验
+     *
+     * @param delegate 被代理的校验器
+     * @param pins     锁定的公钥，格式为"sha256/Base64编码的公钥SHA-256"
+     */
+    @NonNull
+    public static X509TrustManager create(@NonNull X509TrustManager delegate, @Nullable Collection<String> pins) {
+        PinningTrustManager trustManager = new PinningTrustManager(delegate, pins);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && delegate instanceof X509ExtendedTrustManager)
+            return new ExtendedPinningTrustManager(trustManager, (X509ExtendedTrustManager) delegate);
+
+        return trustManager;
+    }
+
+    /** 获取系统默认的证书校验器 */
+    @NonNull
+    public static X509TrustManager systemDefault() throws GeneralSecurityException {
+        TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init((KeyStore) null);
+        for (TrustManager trustManager : factory.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager)
+                return (X509TrustManager) trustManager;
+        }
+
+        throw new GeneralSecurityException("No X509TrustManager in " + factory.getAlgorithm());
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        mDelegate.checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        checkServerTrusted(chain, null, () -> mDelegate.checkServerTrusted(chain, authType));
+    }
+
+    /**
+     * 校验服务器证书链
+     *
+     * @param chain 服务器发送的证书链
+     * @param host  服务器域名，不同域名的校验规则可能不同，一起作为缓存的key，未知时为空
+     * @param check 被代理的校验器的校验方式
+     */
+    void checkServerTrusted(X509Certificate[] chain, @Nullable String host, DelegateCheck check) throws CertificateException {
+        if (chain == null || chain.length == 0)
+            throw new IllegalArgumentException("chain is empty");
+
+        ByteString key = ByteString.of(chain[0].getEncoded()).sha256();
+        if (host != null)
+            key = new Buffer().write(key).writeUtf8(host).readByteString();
+        long now = System.currentTimeMillis();
+
+        Long expireAt = mTrustedCache.get(key);
+        if (expireAt != null && now < expireAt) {
+            mCacheHitCount.incrementAndGet();
+            return;
+        }
+
+        mCacheMissCount.incrementAndGet();
+        check.check();
+        checkPins(chain);
+
+        long notAfter = Long.MAX_VALUE;
+        for (X509Certificate certificate : chain) {
+            notAfter = Math.min(notAfter, certificate.getNotAfter().getTime());
+        }
+        mTrustedCache.put(key, Math.min(notAfter, now + MAX_CACHE_DURATION));
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return mDelegate.getAcceptedIssuers();
+    }
+
+    /** 校验结果缓存命中次数 */
+    public long getCacheHitCount() {
+        return mCacheHitCount.get();
+    }
+
+    /** 校验结果缓存未命中次数 */
+    public long getCacheMissCount() {
+        return mCacheMissCount.get();
+    }
+
+    /** 清空校验结果缓存 */
+    public void clearCache() {
+        mTrustedCache.evictAll();
+    }
+
+    /** 被代理的校验器的校验方式 */
+    interface DelegateCheck {
+
+        void check() throws CertificateException;
+    }
+
+    private void checkPins(X509Certificate[] chain) throws CertificateException {
+        if (mPins.isEmpty())
+            return;
+
+        for (X509Certificate certificate : clean(chain)) {
+            ByteString pin = ByteString.of(certificate.getPublicKey().getEncoded()).sha256();
+            if (mPins.contains(pin))
+                return;
+        }
+
+        throw new CertificateException("Certificate pinning failure: " + chain[0].getSubjectDN());
+    }
+
+    /**
+     * 从服务器证书开始，按照签名关系找到受信任的根证书，去掉证书链中无关的证书
+     *
+     * @param chain 服务器发送的证书链
+     *
+     * @return 服务器证书到受信任根证书的证书链
+     */
+    private List<X509Certificate> clean(X509Certificate[] chain) throws CertificateException {
+        List<X509Certificate> queue = new ArrayList<>(Arrays.asList(chain));
+        List<X509Certificate> result = new ArrayList<>();
+        result.add(queue.remove(0));
+
+        for (int i = 0; i < MAX_SIGNERS; i++) {
+            X509Certificate toVerify = result.get(result.size() - 1);
+
+            X509Certificate anchor = findTrustAnchor(toVerify);
+            if (anchor != null) {
+                if (result.size() > 1 || !toVerify.equals(anchor))
+                    result.add(anchor);
+                return result;
+            }
+
+            X509Certificate signer = null;
+            for (X509Certificate certificate : queue) {
+                if (isSignedBy(toVerify, certificate)) {
+                    signer = certificate;
+                    break;
+                }
+            }
+            if (signer == null)
+                break;
+
+            queue.remove(signer);
+            result.add(signer);
+        }
+
+        throw new CertificateException("Failed to find a trusted cert that signed " + result.get(result.size() - 1).getSubjectDN());
+    }
+
+    private X509Certificate findTrustAnchor(X509Certificate certificate) {
+        Map<X500Principal, List<X509Certificate>> anchors = mTrustAnchors;
+        if (anchors == null) {
+            anchors = new HashMap<>();
+            for (X509Certificate issuer : mDelegate.getAcceptedIssuers()) {
+                List<X509Certificate> list = anchors.get(issuer.getSubjectX500Principal());
+                if (list == null) {
+                    list = new ArrayList<>(1);
+                    anchors.put(issuer.getSubjectX500Principal(), list);
+                }
+                list.add(issuer);
+            }
+            mTrustAnchors = anchors;
+        }
+
+        List<X509Certificate> candidates = anchors.get(certificate.getIssuerX500Principal());
+        if (candidates == null)
+            return null;
+
+        for (X509Certificate candidate : candidates) {
+            if (isSignedBy(certificate, candidate))
+                return candidate;
+        }
+
+        return null;
+    }
+
+    private static boolean isSignedBy(X509Certificate certificate, X509Certificate signer) {
+        if (!certificate.getIssuerX500Principal().equals(signer.getSubjectX500Principal()))
+            return false;
+
+        try {
+            certificate.verify(signer.getPublicKey());
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static Set<ByteString> parsePins(Collection<String> pins) {
+        if (pins == null || pins.isEmpty())
+            return Collections.emptySet();
+
+        Set<ByteString> result = new HashSet<>();
+        for (String pin : pins) {
+            if (pin == null || !pin.startsWith(PIN_PREFIX))
+                throw new IllegalArgumentException("pins must start with '" + PIN_PREFIX + "': " + pin);
+
+            ByteString hash = ByteString.decodeBase64(pin.substring(PIN_PREFIX.length()));
+            if (hash == null)
+                throw new IllegalArgumentException("Invalid pin: " + pin);
+
+            result.add(hash);
+        }
+
+        return Collections.unmodifiableSet(result);
+    }
+}
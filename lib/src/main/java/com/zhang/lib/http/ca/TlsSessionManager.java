@@ -0,0 +1,158 @@
+package com.zhang.lib.http.ca;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * TLS会话管理
+ * <p>
+ * 整个进程共用一个{@link SSLContext}，连接同一个域名时可以复用客户端会话缓存中的会话，
+ * OkHttp在Android上会为Conscrypt的Socket开启Session Ticket。
+ * 同时统计握手次数与会话复用次数：握手完成时会话的创建时间早于Socket的创建时间，即视为复用
+ *
+ * @author ZhangXiaoMing 2026-10-18 16:12 周日
+ */
+public class TlsSessionManager {
+
+    private final X509TrustManager mTrustManager;
+    private final SSLSocketFactory mSocketFactory;
+
+    /** 握手次数 */
+    private final AtomicLong mHandshakeCount = new AtomicLong();
+    /** 复用会话的握手次数 */
+    private final AtomicLong mResumedHandshakeCount = new AtomicLong();
+
+    /**
+     * @param trustManager     证书校验器
+     * @param sessionCacheSize 客户端会话缓存数量，小于等于0时使用系统默认值
+     * @param sessionTimeout   客户端会话缓存有效期，单位：秒，小于等于0时使用系统默认值
+     */
+    public TlsSessionManager(@NonNull X509TrustManager trustManager, int sessionCacheSize, int sessionTimeout) throws GeneralSecurityException {
+        this.mTrustManager = trustManager;
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, new TrustManager[]{trustManager}, new SecureRandom());
+
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        if (sessionContext != null) {
+            if (sessionCacheSize > 0)
+                sessionContext.setSessionCacheSize(sessionCacheSize);
+            if (sessionTimeout > 0)
+                sessionContext.setSessionTimeout(sessionTimeout);
+        }
+
+        this.mSocketFactory = new TrackingSocketFactory(sslContext.getSocketFactory());
+    }
+
+    @NonNull
+    public SSLSocketFactory getSocketFactory() {
+        return mSocketFactory;
+    }
+
+    @NonNull
+    public X509TrustManager getTrustManager() {
+        return mTrustManager;
+    }
+
+    /** 握手次数 */
+    public long getHandshakeCount() {
+        return mHandshakeCount.get();
+    }
+
+    /** 复用会话的握手次数 */
+    public long getResumedHandshakeCount() {
+        return mResumedHandshakeCount.get();
+    }
+
+    /** 会话复用率 */
+    public float getResumptionRate() {
+        long count = mHandshakeCount.get();
+        return count == 0 ? 0F : (float) mResumedHandshakeCount.get() / count;
+    }
+
+    /**
+     * 统计Socket的握手结果
+     *
+     * @param socket Socket
+     */
+    private Socket track(Socket socket) {
+        if (!(socket instanceof SSLSocket))
+            return socket;
+
+        long createTime = System.currentTimeMillis();
+        ((SSLSocket) socket).addHandshakeCompletedListener(event -> {
+            mHandshakeCount.incrementAndGet();
+
+            SSLSession session = event.getSession();
+            if (session != null && session.getCreationTime() < createTime)
+                mResumedHandshakeCount.incrementAndGet();
+        });
+
+        return socket;
+    }
+
+
+    /** 创建Socket时添加握手监听 */
+    private final class TrackingSocketFactory extends SSLSocketFactory {
+
+        private final SSLSocketFactory mDelegate;
+
+        TrackingSocketFactory(SSLSocketFactory delegate) {
+            this.mDelegate = delegate;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return mDelegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return mDelegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return track(mDelegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+            return track(mDelegate.createSocket(s, host, port, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return track(mDelegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return track(mDelegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return track(mDelegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return track(mDelegate.createSocket(address, port, localAddress, localPort));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.zhang.lib.http.ca;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 预编译的信任域名匹配器
+ * <p>
+ * 创建时把信任链接解析成域名集合，创建后不可修改，校验时不需要再解析链接。
+ * 支持通配符域名，例如"*.example.com"匹配example.com的任意层级子域名
+ *
+ * @author ZhangXiaoMing 2026-10-18 15:06 周日
+ */
+public final class TrustHostMatcher {
+
+    /** 不信任任何域名 */
+    public static final TrustHostMatcher EMPTY = new TrustHostMatcher(Collections.<String>emptySet(), new String[0]);
+
+    private static final String WILDCARD_PREFIX = "*.";
+
+    /** 完整域名集合 */
+    private final Set<String> mHosts;
+    /** 通配符域名的后缀，例如".example.com" */
+    private final String[] mWildcardSuffixes;
+
+    private TrustHostMatcher(Set<String> hosts, String[] wildcardSuffixes) {
+        this.mHosts = hosts;
+        this.mWildcardSuffixes = wildcardSuffixes;
+    }
+
+    /**
+     * 编译信任链接
+     *
+     * @param urls 信任链接，可以是完整链接，也可以只是域名
+     */
+    @NonNull
+    public static TrustHostMatcher compile(@Nullable Collection<String> urls) {
+        if (urls == null || urls.isEmpty())
+            return EMPTY;
+
+        Set<String> hosts = new HashSet<>();
+        List<String> wildcardSuffixes = new ArrayList<>();
+        for (String url : urls) {
+            String host = parseHost(url);
+            if (host == null)
+                continue;
+
+            if (host.startsWith(WILDCARD_PREFIX)) {
+                String suffix = host.substring(1);
+                if (!wildcardSuffixes.contains(suffix))
+                    wildcardSuffixes.add(suffix);
+            } else {
+                hosts.add(host);
+            }
+        }
+
+        return new TrustHostMatcher(Collections.unmodifiableSet(hosts), wildcardSuffixes.toArray(new String[0]));
+    }
+
+    /**
+     * 是否是信任的域名
+     *
+     * @param hostname 域名
+     */
+    public boolean matches(@Nullable String hostname) {
+        if (hostname == null)
+            return false;
+
+        if (mHosts.contains(hostname))
+            return true;
+
+        for (String suffix : mWildcardSuffixes) {
+            if (hostname.length() > suffix.length() && hostname.endsWith(suffix))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * 解析链接中的域名
+     *
+     * @param url 链接
+     */
+    @Nullable
+    static String parseHost(@Nullable String url) {
+        if (url == null)
+            return null;
+
+        String host = url.trim().toLowerCase(Locale.US);
+
+        int schemeEnd = host.indexOf("://");
+        if (schemeEnd >= 0)
+            host = host.substring(schemeEnd + 3);
+
+        int end = host.length();
+        for (int index = 0; index < host.length(); index++) {
+            char c = host.charAt(index);
+            if (c == '/' || c == '?' || c == '#') {
+                end = index;
+                break;
+            }
+        }
+        host = host.substring(0, end);
+
+        int userInfoEnd = host.lastIndexOf('@');
+        if (userInfoEnd >= 0)
+            host = host.substring(userInfoEnd + 1);
+
+        if (host.startsWith("[")) {
+            //IPv6
+            int bracketEnd = host.indexOf(']');
+            if (bracketEnd > 0)
+                host = host.substring(1, bracketEnd);
+        } else {
+            int portStart = host.indexOf(':');
+            if (portStart >= 0)
+                host = host.substring(0, portStart);
+        }
+
+        return host.isEmpty() ? null : host;
+    }
+}
@@ -1,14 +1,9 @@
 package com.zhang.lib.http.ca;
 
-import android.net.Uri;
-import android.text.TextUtils;
-
 import com.zhang.lib.http.RetrofitSDK;
 import com.zhang.lib.http.constant.RetrofitConstant;
 import com.zhang.library.utils.LogUtils;
 
-import java.util.List;
-
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSession;
 
@@ -30,15 +25,10 @@ public class TrustHostnameVerifier implements HostnameVerifier {
      */
     @Override
     public boolean verify(String hostname, SSLSession session) {
-        LogUtils.debug(RetrofitConstant.TAG, "TrustHostnameVerifier>>>verify()>>>hostname=%s", hostname);
-        List<String> trustUrlList = RetrofitSDK.getInstance().getTrustUrlList();
-        for (String url : trustUrlList) {
-            Uri uri = Uri.parse(url);
-            LogUtils.debug(RetrofitConstant.TAG, "TrustHostnameVerifier>>>verify()>>>trustUrlList.url=%s , host=%s", url, uri.getHost());
-            if (TextUtils.equals(hostname, uri.getHost()))
-                return true;
-        }
+        if (RetrofitSDK.getInstance().getTrustHostMatcher().matches(hostname))
+            return true;
 
+        LogUtils.debug(RetrofitConstant.TAG, "TrustHostnameVerifier>>>verify()>>>untrusted hostname=%s", hostname);
         return false;
     }
 }
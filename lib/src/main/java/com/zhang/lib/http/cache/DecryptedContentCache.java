@@ -0,0 +1,423 @@
+package com.zhang.lib.http.cache;
+
+import android.os.Build;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.library.utils.LogUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.cache.CacheStrategy;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * 解密后的请求结果缓存
+ * <p>
+ * OkHttp的{@link okhttp3.Cache}保存的是服务器返回的密文，命中缓存和304时仍然要重新解密。
+ * 这里按照链接在磁盘上保存解密后的内容，并记录对应的ETag或Last-Modified，
+ * OkHttp的缓存命中且校验值一致时直接使用保存的明文，不再调用服务器协议的解密器。
+ * <p>
+ * 明文使用本地密钥以AES-GCM加密保存，本地密钥由AndroidKeyStore中的密钥加密后保存在缓存目录中，
+ * 校验值作为GCM的附加数据，内容被篡改或者与校验值不匹配时都无法读取。AndroidKeyStore需要API 23
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:55 周日
+ */
+@RequiresApi(Build.VERSION_CODES.M)
+public class DecryptedContentCache {
+
+    private static final String TAG = "DecryptedContentCache";
+
+    /** 默认缓存大小，单位：B */
+    public static final long DEFAULT_MAX_SIZE = 5 * 1024 * 1024;
+    /** 单个请求结果的最大长度，超过时不缓存，单位：B */
+    public static final int MAX_ENTRY_SIZE = 512 * 1024;
+
+    private static final String KEY_ALIAS = "com.zhang.lib.http.DecryptedContentCache";
+    private static final String KEY_FILE = "key";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_SIZE = 12;
+    private static final int TAG_BITS = 128;
+    private static final int VERSION = 1;
+
+    private final File mDirectory;
+    private final long mMaxSize;
+    private final SecureRandom mRandom = new SecureRandom();
+
+    /** 解密后的本地密钥 */
+    private SecretKey mDataKey;
+    /** 密钥不可用时不再读写缓存 */
+    private volatile boolean isDisabled;
+
+    /**
+     * @param directory 缓存目录，需要是单独的目录
+     * @param maxSize   缓存的最大字节数
+     */
+    public DecryptedContentCache(@NonNull File directory, long maxSize) {
+        this.mDirectory = directory;
+        this.mMaxSize = maxSize;
+    }
+
+    /**
+     * 请求结果的校验值，优先使用ETag
+     *
+     * @return 没有校验值时为null，此时不缓存
+     */
+    @Nullable
+    public static String validator(@NonNull Response response) {
+        String etag = response.header("ETag");
+        if (etag != null)
+            return "ETag " + etag;
+
+        String lastModified = response.header("Last-Modified");
+        return lastModified == null ? null : "Last-Modified " + lastModified;
+    }
+
+    /**
+     * OkHttp是否会缓存此请求结果，不会缓存时下次也不会命中OkHttp的缓存，解密后的内容也不需要保存
+     */
+    public static boolean isCacheable(@NonNull Response response) {
+        Request request = response.request();
+        return !response.cacheControl().noStore()
+                && !request.cacheControl().noStore()
+                && CacheStrategy.Companion.isCacheable(response, request);
+    }
+
+    /**
+     * 请求结果是否来自OkHttp的缓存，包括直接命中和304
+     */
+    public static boolean isFromCache(@NonNull Response response) {
+        if (response.cacheResponse() == null)
+            return false;
+
+        Response networkResponse = response.networkResponse();
+        return networkResponse == null || networkResponse.code() == 304;
+    }
+
+    /**
+     * 读取缓存的明文
+     *
+     * @param key       缓存key，一般为请求链接
+     * @param validator 当前请求结果的校验值
+     *
+     * @return 没有缓存或者校验值不一致时为null
+     */
+    @Nullable
+    public synchronized ByteString get(@NonNull String key, @NonNull String validator) {
+        if (isDisabled)
+            return null;
+
+        File file = file(key);
+        if (!file.exists())
+            return null;
+
+        try (BufferedSource source = Okio.buffer(Okio.source(file))) {
+            if (source.readInt() != VERSION)
+                return remove(file);
+
+            int validatorSize = source.readInt();
+            if (validatorSize < 0 || validatorSize > 1024)
+                return remove(file);
+            if (!validator.equals(source.readUtf8(validatorSize)))
+                return null;
+
+            byte[] iv = source.readByteArray(IV_SIZE);
+            byte[] encrypted = source.readByteArray();
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, dataKey(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(aad(key, validator));
+            byte[] content = cipher.doFinal(encrypted);
+
+            //更新访问时间，超过大小时先删除最久没有使用的
+            file.setLastModified(System.currentTimeMillis());
+            return ByteString.of(content);
+        } catch (IOException | GeneralSecurityException e) {
+            LogUtils.debug(TAG, "get()>>>%s", e.getMessage());
+            return remove(file);
+        }
+    }
+
+    /**
+     * 保存解密后的明文
+     *
+     * @param key       缓存key，一般为请求链接
+     * @param validator 请求结果的校验值
+     * @param content   解密后的明文
+     */
+    public synchronized void put(@NonNull String key, @NonNull String validator, @NonNull ByteString content) {
+        if (isDisabled || content.size() > MAX_ENTRY_SIZE)
+            return;
+
+        File file = file(key);
+        File temp = new File(mDirectory, file.getName() + ".tmp");
+        try {
+            byte[] iv = new byte[IV_SIZE];
+            mRandom.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, dataKey(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(aad(key, validator));
+            byte[] encrypted = cipher.doFinal(content.toByteArray());
+
+            ByteString validatorBytes = ByteString.encodeUtf8(validator);
+            try (BufferedSink sink = Okio.buffer(Okio.sink(temp))) {
+                sink.writeInt(VERSION)
+                        .writeInt(validatorBytes.size())
+                        .write(validatorBytes)
+                        .write(iv)
+                        .write(encrypted);
+            }
+
+            if (!temp.renameTo(file))
+                throw new IOException("rename failed");
+
+            trimToSize();
+        } catch (IOException | GeneralSecurityException e) {
+            LogUtils.debug(TAG, "put()>>>%s", e.getMessage());
+            temp.delete();
+        }
+    }
+
+    /**
+     * 读取请求结果的同时保存明文，完整读取后才会写入缓存
+     *
+     * @param body      解密后的请求结果
+     * @param key       缓存key，一般为请求链接
+     * @param validator 请求结果的校验值
+     */
+    @NonNull
+    public ResponseBody tee(@NonNull ResponseBody body, @NonNull String key, @NonNull String validator) {
+        if (isDisabled)
+            return body;
+
+        return new TeeResponseBody(body, key, validator);
+    }
+
+    /** 删除所有缓存，例如退出登录时 */
+    public synchronized void evictAll() {
+        File[] files = mDirectory.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            if (!KEY_FILE.equals(file.getName()))
+                file.delete();
+        }
+    }
+
+
+    private File file(String key) {
+        return new File(mDirectory, ByteString.encodeUtf8(key).sha256().hex());
+    }
+
+    private ByteString remove(File file) {
+        file.delete();
+        return null;
+    }
+
+    private static byte[] aad(String key, String validator) {
+        return (key + "\n" + validator).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** 超过缓存大小时按照访问时间删除 */
+    private void trimToSize() {
+        File[] files = mDirectory.listFiles();
+        if (files == null)
+            return;
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= mMaxSize)
+            return;
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return Long.compare(o1.lastModified(), o2.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (size <= mMaxSize)
+                break;
+            if (KEY_FILE.equals(file.getName()))
+                continue;
+
+            size -= file.length();
+            file.delete();
+        }
+    }
+
+    /**
+     * 获取本地密钥，第一次使用时从磁盘读取并用AndroidKeyStore中的密钥解密，不存在时重新生成。
+     * 缓存的读写都使用本地密钥在进程内加解密，不需要每次都调用AndroidKeyStore
+     */
+    private SecretKey dataKey() throws GeneralSecurityException, IOException {
+        if (mDataKey != null)
+            return mDataKey;
+
+        try {
+            if (!mDirectory.exists() && !mDirectory.mkdirs())
+                throw new IOException("create directory failed: " + mDirectory);
+
+            SecretKey masterKey = masterKey();
+            File keyFile = new File(mDirectory, KEY_FILE);
+            if (keyFile.exists()) {
+                try (BufferedSource source = Okio.buffer(Okio.source(keyFile))) {
+                    byte[] iv = source.readByteArray(IV_SIZE);
+                    byte[] wrapped = source.readByteArray();
+
+                    Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+                    cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(TAG_BITS, iv));
+                    mDataKey = new SecretKeySpec(cipher.doFinal(wrapped), "AES");
+                    return mDataKey;
+                } catch (IOException | GeneralSecurityException e) {
+                    LogUtils.debug(TAG, "dataKey()>>>recreate: %s", e.getMessage());
+                }
+            }
+
+            //密钥无法读取时之前的缓存也无法读取，一起删除
+            evictAll();
+
+            byte[] raw = new byte[32];
+            mRandom.nextBytes(raw);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, masterKey);
+            Buffer buffer = new Buffer()
+                    .write(cipher.getIV())
+                    .write(cipher.doFinal(raw));
+            try (BufferedSink sink = Okio.buffer(Okio.sink(keyFile))) {
+                sink.writeAll(buffer);
+            }
+
+            mDataKey = new SecretKeySpec(raw, "AES");
+            return mDataKey;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            LogUtils.info(RetrofitConstant.TAG, "DecryptedContentCache>>>disabled: " + e.getMessage());
+            isDisabled = true;
+            throw e;
+        }
+    }
+
+    /** AndroidKeyStore中的密钥，只用于加解密本地密钥，不能导出 */
+    private static SecretKey masterKey() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance("AndroidKeyStore");
+        keyStore.load(null);
+        KeyStore.Entry entry = keyStore.getEntry(KEY_ALIAS, null);
+        if (entry instanceof KeyStore.SecretKeyEntry)
+            return ((KeyStore.SecretKeyEntry) entry).getSecretKey();
+
+        KeyGenerator generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, "AndroidKeyStore");
+        generator.init(new KeyGenParameterSpec.Builder(KEY_ALIAS, KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                .setKeySize(256)
+                .build());
+        return generator.generateKey();
+    }
+
+
+    /** 边读边保存明文的请求结果 */
+    private final class TeeResponseBody extends ResponseBody {
+
+        private final ResponseBody mDelegate;
+        private final String mKey;
+        private final String mValidator;
+
+        private BufferedSource mSource;
+
+        TeeResponseBody(ResponseBody delegate, String key, String validator) {
+            this.mDelegate = delegate;
+            this.mKey = key;
+            this.mValidator = validator;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return mDelegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return mDelegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            if (mSource == null)
+                mSource = Okio.buffer(new TeeSource(mDelegate.source()));
+
+            return mSource;
+        }
+
+        @Override
+        public void close() {
+            mDelegate.close();
+        }
+
+
+        private final class TeeSource extends ForwardingSource {
+
+            private final Buffer mContent = new Buffer();
+            /** 超过最大长度或者已经保存后不再复制 */
+            private boolean isDone;
+
+            TeeSource(BufferedSource delegate) {
+                super(delegate);
+            }
+
+            @Override
+            public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (isDone)
+                    return read;
+
+                if (read == -1) {
+                    isDone = true;
+                    put(mKey, mValidator, mContent.readByteString());
+                    return read;
+                }
+
+                if (mContent.size() + read > MAX_ENTRY_SIZE) {
+                    isDone = true;
+                    mContent.clear();
+                    return read;
+                }
+
+                sink.copyTo(mContent, sink.size() - read, read);
+                return read;
+            }
+        }
+    }
+}
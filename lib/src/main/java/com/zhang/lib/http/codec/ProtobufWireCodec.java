@@ -0,0 +1,79 @@
+package com.zhang.lib.http.codec;
+
+import androidx.annotation.NonNull;
+
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.zhang.lib.http.interfaces.IWireCodec;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * Protocol Buffers编解码，支持{@link MessageLite}的子类
+ * <p>
+ * 依赖com.google.protobuf:protobuf-javalite，需要使用方自行添加
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:20 周日
+ */
+public class ProtobufWireCodec implements IWireCodec {
+
+    public static final MediaType MEDIA_TYPE = MediaType.get("application/x-protobuf");
+
+    private final ExtensionRegistryLite mRegistry;
+    /** 消息类型对应的Parser */
+    private final ConcurrentHashMap<Class<?>, Parser<?>> mParserCache = new ConcurrentHashMap<>();
+
+    public ProtobufWireCodec() {
+        this(ExtensionRegistryLite.getEmptyRegistry());
+    }
+
+    public ProtobufWireCodec(@NonNull ExtensionRegistryLite registry) {
+        this.mRegistry = registry;
+    }
+
+    @NonNull
+    @Override
+    public MediaType mediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public boolean supports(@NonNull Type type) {
+        return type instanceof Class && MessageLite.class.isAssignableFrom((Class<?>) type);
+    }
+
+    @Override
+    public Object decode(@NonNull Type type, @NonNull BufferedSource source) throws IOException {
+        return getParser((Class<?>) type).parseFrom(source.inputStream(), mRegistry);
+    }
+
+    @Override
+    public void encode(@NonNull Object value, @NonNull Type type, @NonNull BufferedSink sink) throws IOException {
+        ((MessageLite) value).writeTo(sink.outputStream());
+    }
+
+    private Parser<?> getParser(Class<?> type) {
+        Parser<?> parser = mParserCache.get(type);
+        if (parser != null)
+            return parser;
+
+        try {
+            Method method = type.getDeclaredMethod("parser");
+            parser = (Parser<?>) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Found a protobuf message but " + type.getName()
+                    + " had no parser() method", e);
+        }
+
+        Parser<?> previous = mParserCache.putIfAbsent(type, parser);
+        return previous != null ? previous : parser;
+    }
+}
@@ -0,0 +1,35 @@
+package com.zhang.lib.http.compress;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.ContentEncoding;
+import com.zhang.lib.http.interfaces.IDecompressor;
+
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.IOException;
+
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Brotli解压
+ * <p>
+ * 依赖org.brotli:dec，需要使用方自行添加
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:02 周日
+ */
+public class BrotliDecompressor implements IDecompressor {
+
+    @NonNull
+    @Override
+    public String encoding() {
+        return ContentEncoding.BROTLI;
+    }
+
+    @NonNull
+    @Override
+    public Source decompress(@NonNull Source source) throws IOException {
+        return Okio.source(new BrotliInputStream(Okio.buffer(source).inputStream()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.zhang.lib.http.compress;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.ContentEncoding;
+import com.zhang.lib.http.interfaces.ICompressor;
+
+import okio.GzipSink;
+import okio.Sink;
+
+/**
+ * gzip压缩
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:00 周日
+ */
+public class GzipCompressor implements ICompressor {
+
+    @NonNull
+    @Override
+    public String encoding() {
+        return ContentEncoding.GZIP;
+    }
+
+    @NonNull
+    @Override
+    public Sink compress(@NonNull Sink sink) {
+        return new GzipSink(sink);
+    }
+}
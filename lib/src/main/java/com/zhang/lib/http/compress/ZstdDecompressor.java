@@ -0,0 +1,34 @@
+package com.zhang.lib.http.compress;
+
+import androidx.annotation.NonNull;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.zhang.lib.http.constant.ContentEncoding;
+import com.zhang.lib.http.interfaces.IDecompressor;
+
+import java.io.IOException;
+
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Zstd解压
+ * <p>
+ * 依赖com.github.luben:zstd-jni（Android使用aar），需要使用方自行添加
+ *
+ * @author ZhangXiaoMing 2026-10-19 10:20 周一
+ */
+public class ZstdDecompressor implements IDecompressor {
+
+    @NonNull
+    @Override
+    public String encoding() {
+        return ContentEncoding.ZSTD;
+    }
+
+    @NonNull
+    @Override
+    public Source decompress(@NonNull Source source) throws IOException {
+        return Okio.source(new ZstdInputStream(Okio.buffer(source).inputStream()));
+    }
+}
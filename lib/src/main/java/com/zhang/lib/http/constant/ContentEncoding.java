@@ -0,0 +1,25 @@
+package com.zhang.lib.http.constant;
+
+import androidx.annotation.StringDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Http内容压缩方式
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:50 周日
+ */
+
+@Retention(RetentionPolicy.SOURCE)
+@StringDef({
+        ContentEncoding.GZIP,
+        ContentEncoding.BROTLI,
+        ContentEncoding.ZSTD,
+})
+public @interface ContentEncoding {
+
+    String GZIP = "gzip";
+    String BROTLI = "br";
+    String ZSTD = "zstd";
+}
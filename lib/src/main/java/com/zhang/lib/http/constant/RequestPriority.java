@@ -0,0 +1,31 @@
+package com.zhang.lib.http.constant;
+
+import androidx.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * 请求优先级，数值越小优先级越高
+ *
+ * @author ZhangXiaoMing 2026-10-19 01:05 周一
+ */
+
+@Retention(RetentionPolicy.SOURCE)
+@IntDef({
+        RequestPriority.HIGH,
+        RequestPriority.NORMAL,
+        RequestPriority.LOW,
+})
+public @interface RequestPriority {
+
+    /** 用户正在等待的请求 */
+    int HIGH = 0;
+    /** 默认优先级 */
+    int NORMAL = 1;
+    /** 预加载、埋点等后台请求 */
+    int LOW = 2;
+
+    /** 优先级数量 */
+    int COUNT = 3;
+}
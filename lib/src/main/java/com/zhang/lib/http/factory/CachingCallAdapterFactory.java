@@ -0,0 +1,425 @@
+package com.zhang.lib.http.factory;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.annotation.MemoryCache;
+import com.zhang.lib.http.interfaces.IHeaderBuilder;
+import com.zhang.lib.http.interfaces.IHeaderProvider;
+import com.zhang.lib.http.utils.RequestKeys;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * 在内存中缓存解析结果的适配器工厂
+ * <p>
+ * 只缓存添加了{@link MemoryCache}注解的接口，key为解析类型、链接、请求体的摘要和当前用户的标识。
+ * 适配器在Header拦截器之前执行，请求中还没有登录信息，用户标识使用{@link IHeaderProvider}的版本号，
+ * 没有设置IHeaderProvider时使用{@link IHeaderBuilder}生成的区分用户的Header（默认为{@link #DEFAULT_VARY_HEADERS}），
+ * 登录信息放在其他Header时需要{@link #setVaryHeaders(String...)}，或者在切换账号时调用{@link #evictAll()}。
+ * 命中时直接返回解析好的对象，不经过OkHttp、解密和Gson解析，调用方拿到的是同一个对象，不能修改。
+ * 缓存大小按照解析时实际读取的字节数计算，需要把{@link #getConverterFactory()}添加在所有解析工厂之前，
+ * 没有添加时按照请求结果的长度估算，仍然无法获取长度时按照{@link #DEFAULT_ENTRY_SIZE}计算。
+ * 需要添加在{@link CoalescingCallAdapterFactory}和RxJava适配器之前，同时适用于直接返回{@link Call}的接口和RxJava接口
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:45 周日
+ */
+public final class CachingCallAdapterFactory extends CallAdapter.Factory {
+
+    /** 默认缓存大小，单位：B */
+    public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+    /** 没有统计读取的字节数，也无法获取请求结果长度时估算的大小，单位：B */
+    public static final int DEFAULT_ENTRY_SIZE = 4 * 1024;
+
+    /** 默认区分用户的Header */
+    public static final String[] DEFAULT_VARY_HEADERS = {"Authorization"};
+
+    private final LruCache<String, Entry> mCache;
+    /** 值不同时分别缓存的Header */
+    private volatile String[] mVaryHeaders = DEFAULT_VARY_HEADERS;
+    /** 统计解析时读取字节数的解析工厂 */
+    private final Converter.Factory mConverterFactory = new SizeCountingConverterFactory();
+    /** 解析结果对应的读取字节数，存入缓存时移除 */
+    private final Map<Object, Integer> mReadSizes = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /** 命中缓存的次数 */
+    private final AtomicLong mHitCount = new AtomicLong();
+    /** 没有命中缓存的次数 */
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    private CachingCallAdapterFactory(int maxSize) {
+        this.mCache = new LruCache<String, Entry>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Entry value) {
+                return key.length() + value.size;
+            }
+        };
+    }
+
+    public static CachingCallAdapterFactory create() {
+        return create(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize 缓存的最大字节数
+     */
+    public static CachingCallAdapterFactory create(int maxSize) {
+        return new CachingCallAdapterFactory(maxSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+        MemoryCache memoryCache = findAnnotation(annotations);
+        if (memoryCache == null || memoryCache.maxAge() <= 0)
+            return null;
+
+        CallAdapter<Object, Object> delegate = (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+        return new CachingCallAdapter<>(delegate, TimeUnit.SECONDS.toMillis(memoryCache.maxAge()));
+    }
+
+    /**
+     * 统计解析时读取字节数的解析工厂，需要添加在所有解析工厂之前，只处理添加了{@link MemoryCache}注解的接口
+     */
+    @NonNull
+    public Converter.Factory getConverterFactory() {
+        return mConverterFactory;
+    }
+
+    /**
+     * 设置没有IHeaderProvider时区分用户的Header，例如放在自定义Header中的登录信息
+     *
+     * @param names Header名称，为空时不区分
+     */
+    public CachingCallAdapterFactory setVaryHeaders(String... names) {
+        this.mVaryHeaders = names == null ? new String[0] : names.clone();
+        return this;
+    }
+
+    /** 清空缓存，例如退出登录时 */
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    /** 缓存当前占用的字节数 */
+    public int size() {
+        return mCache.size();
+    }
+
+    /** 命中缓存的次数 */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /** 没有命中缓存的次数 */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+
+    private static MemoryCache findAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof MemoryCache)
+                return (MemoryCache) annotation;
+        }
+
+        return null;
+    }
+
+    /**
+     * 当前用户的标识：IHeaderProvider的版本号，或者IHeaderBuilder生成的区分用户的Header
+     */
+    private String sessionKey() {
+        RetrofitSDK sdk = RetrofitSDK.getInstance();
+        IHeaderProvider provider = sdk.getHeaderProvider();
+        if (provider != null)
+            return "v" + provider.getHeaderVersion();
+
+        Map<String, String> headers = sdk.generateRequestHeaders();
+        if (headers == null || headers.isEmpty())
+            return "";
+
+        StringBuilder builder = new StringBuilder();
+        for (String name : mVaryHeaders) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                if (name.equalsIgnoreCase(entry.getKey()))
+                    builder.append(name).append(": ").append(entry.getValue()).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    /** 按照解析时读取的字节数计算占用的内存，没有统计时按照请求结果的长度估算 */
+    private int estimateSize(Response<?> response) {
+        Integer readSize = mReadSizes.remove(response.body());
+        if (readSize != null)
+            return readSize;
+
+        ResponseBody body = response.raw().body();
+        long contentLength = body == null ? -1 : body.contentLength();
+        if (contentLength < 0) {
+            String header = response.headers().get("Content-Length");
+            try {
+                contentLength = header == null ? -1 : Long.parseLong(header);
+            } catch (NumberFormatException e) {
+                contentLength = -1;
+            }
+        }
+
+        if (contentLength < 0)
+            return DEFAULT_ENTRY_SIZE;
+        return (int) Math.min(contentLength, Integer.MAX_VALUE);
+    }
+
+
+    /** 每个接口方法一个适配器，保存该接口的缓存有效期 */
+    private final class CachingCallAdapter<R, T> implements CallAdapter<R, T> {
+
+        private final CallAdapter<R, T> mDelegate;
+        private final long mMaxAge;
+
+        CachingCallAdapter(CallAdapter<R, T> delegate, long maxAge) {
+            this.mDelegate = delegate;
+            this.mMaxAge = maxAge;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return mDelegate.responseType();
+        }
+
+        @NonNull
+        @Override
+        public T adapt(@NonNull Call<R> call) {
+            return mDelegate.adapt(new CachingCall<>(call, this));
+        }
+
+        /**
+         * 缓存的key，不同的接口方法可能使用相同的链接，解析类型也要加入key中，不同用户的结果分别缓存
+         *
+         * @return 无法生成时为null
+         */
+        @Nullable
+        String key(Request request) {
+            String requestKey = RequestKeys.create(request);
+            return requestKey == null ? null : responseType() + " " + requestKey + "\n" + sessionKey();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Nullable
+        Response<R> get(String key) {
+            Entry entry = mCache.get(key);
+            if (entry != null && SystemClock.elapsedRealtime() >= entry.expireAt) {
+                mCache.remove(key);
+                entry = null;
+            }
+
+            if (entry == null) {
+                mMissCount.incrementAndGet();
+                return null;
+            }
+
+            mHitCount.incrementAndGet();
+            return (Response<R>) entry.response;
+        }
+
+        /**
+         * 存入缓存，每个解析结果都要调用，移除统计的读取字节数
+         *
+         * @param key 缓存的key，为空时不缓存
+         */
+        void put(@Nullable String key, Response<R> response) {
+            int size = estimateSize(response);
+            if (key == null || !response.isSuccessful() || response.body() == null)
+                return;
+
+            mCache.put(key, new Entry(response, size, SystemClock.elapsedRealtime() + mMaxAge));
+        }
+    }
+
+
+    /** 在实际的解析器外统计读取的字节数，解析后的请求结果长度未知或者解密后长度变化时也能得到准确的大小 */
+    private final class SizeCountingConverterFactory extends Converter.Factory {
+
+        @SuppressWarnings("unchecked")
+        @Nullable
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+            MemoryCache memoryCache = findAnnotation(annotations);
+            if (memoryCache == null || memoryCache.maxAge() <= 0)
+                return null;
+
+            Converter<ResponseBody, Object> delegate = (Converter<ResponseBody, Object>) retrofit.nextResponseBodyConverter(this, type, annotations);
+            return body -> {
+                CountingSource source = new CountingSource(body.source());
+                Object value = delegate.convert(ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength()));
+                if (value != null)
+                    mReadSizes.put(value, (int) Math.min(source.count, Integer.MAX_VALUE));
+                return value;
+            };
+        }
+    }
+
+
+    /** 统计读取字节数的Source */
+    private static final class CountingSource extends ForwardingSource {
+
+        long count;
+
+        CountingSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read > 0)
+                count += read;
+            return read;
+        }
+    }
+
+
+    /** 缓存的解析结果 */
+    private static final class Entry {
+
+        final Response<?> response;
+        /** 估算的大小，单位：B */
+        final int size;
+        /** 过期时间，使用开机时间，不受修改系统时间影响 */
+        final long expireAt;
+
+        Entry(Response<?> response, int size, long expireAt) {
+            this.response = response;
+            this.size = size;
+            this.expireAt = expireAt;
+        }
+    }
+
+
+    /** 先读取缓存的Call */
+    private static final class CachingCall<R> implements Call<R> {
+
+        private final Call<R> mDelegate;
+        private final CachingCallAdapter<R, ?> mAdapter;
+
+        private volatile boolean isExecuted;
+        private volatile boolean isCanceled;
+
+        CachingCall(Call<R> delegate, CachingCallAdapter<R, ?> adapter) {
+            this.mDelegate = delegate;
+            this.mAdapter = adapter;
+        }
+
+        @NonNull
+        @Override
+        public Response<R> execute() throws IOException {
+            markExecuted();
+
+            String key = mAdapter.key(mDelegate.request());
+            Response<R> cached = key == null ? null : mAdapter.get(key);
+            if (cached != null)
+                return cached;
+
+            Response<R> response = mDelegate.execute();
+            mAdapter.put(key, response);
+            return response;
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<R> callback) {
+            markExecuted();
+
+            String key = mAdapter.key(mDelegate.request());
+            Response<R> cached = key == null ? null : mAdapter.get(key);
+            if (cached != null) {
+                if (isCanceled)
+                    callback.onFailure(this, new IOException("Canceled"));
+                else
+                    callback.onResponse(this, cached);
+                return;
+            }
+
+            mDelegate.enqueue(new Callback<R>() {
+                @Override
+                public void onResponse(@NonNull Call<R> call, @NonNull Response<R> response) {
+                    mAdapter.put(key, response);
+                    callback.onResponse(CachingCall.this, response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<R> call, @NonNull Throwable t) {
+                    callback.onFailure(CachingCall.this, t);
+                }
+            });
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return isExecuted;
+        }
+
+        @Override
+        public void cancel() {
+            isCanceled = true;
+            mDelegate.cancel();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return isCanceled || mDelegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Call<R> clone() {
+            return new CachingCall<>(mDelegate.clone(), mAdapter);
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return mDelegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return mDelegate.timeout();
+        }
+
+        private synchronized void markExecuted() {
+            if (isExecuted)
+                throw new IllegalStateException("Already executed.");
+
+            isExecuted = true;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.zhang.lib.http.factory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.annotation.Idempotent;
+import com.zhang.lib.http.utils.RequestKeys;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+
+/**
+ * 合并相同请求的适配器工厂
+ * <p>
+ * 同一个接口方法、相同链接和请求体的请求同时发起时，只发出一个请求，结果分发给所有调用方。
+ * 只合并GET、HEAD和添加了{@link Idempotent}注解的接口，调用方拿到的是同一个解析结果，不能修改。
+ * 同时适用于直接返回{@link Call}的接口和RxJava接口
+ *
+ * @author ZhangXiaoMing 2026-10-18 18:32 周日
+ */
+public final class CoalescingCallAdapterFactory extends CallAdapter.Factory {
+
+    /** 经过合并判断的请求数量 */
+    private final AtomicLong mCallCount = new AtomicLong();
+    /** 被合并的请求数量 */
+    private final AtomicLong mCoalescedCount = new AtomicLong();
+
+    private CoalescingCallAdapterFactory() {
+    }
+
+    public static CoalescingCallAdapterFactory create() {
+        return new CoalescingCallAdapterFactory();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+        if (!isCoalescible(annotations))
+            return null;
+
+        CallAdapter<Object, Object> delegate = (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+        return new CoalescingCallAdapter<>(delegate);
+    }
+
+    /** 经过合并判断的请求数量 */
+    public long getCallCount() {
+        return mCallCount.get();
+    }
+
+    /** 被合并的请求数量 */
+    public long getCoalescedCount() {
+        return mCoalescedCount.get();
+    }
+
+
+    private static boolean isCoalescible(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (type == GET.class || type == HEAD.class || type == Idempotent.class)
+                return true;
+        }
+
+        return false;
+    }
+
+
+    /** 每个接口方法一个适配器，正在进行的请求按请求标识保存 */
+    private final class CoalescingCallAdapter<R, T> implements CallAdapter<R, T> {
+
+        private final CallAdapter<R, T> mDelegate;
+        private final ConcurrentHashMap<String, Flight<R>> mFlights = new ConcurrentHashMap<>();
+
+        CoalescingCallAdapter(CallAdapter<R, T> delegate) {
+            this.mDelegate = delegate;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return mDelegate.responseType();
+        }
+
+        @NonNull
+        @Override
+        public T adapt(@NonNull Call<R> call) {
+            return mDelegate.adapt(new CoalescingCall<>(call, this));
+        }
+
+        /**
+         * 加入正在进行的请求，没有时创建新的请求
+         *
+         * @param key        请求标识
+         * @param subscriber 订阅者
+         *
+         * @return 新创建的请求返回true
+         */
+        boolean join(String key, Subscriber<R> subscriber) {
+            mCallCount.incrementAndGet();
+            while (true) {
+                Flight<R> flight = mFlights.get(key);
+                if (flight != null) {
+                    if (flight.subscribe(subscriber)) {
+                        mCoalescedCount.incrementAndGet();
+                        return false;
+                    }
+
+                    //请求已经结束，等待移除后重新创建
+                    mFlights.remove(key, flight);
+                    continue;
+                }
+
+                flight = new Flight<>(key, subscriber.call.mDelegate);
+                if (mFlights.putIfAbsent(key, flight) == null) {
+                    flight.subscribe(subscriber);
+                    return true;
+                }
+            }
+        }
+
+        void finish(Flight<R> flight) {
+            mFlights.remove(flight.key, flight);
+        }
+    }
+
+
+    /** 一个正在进行的请求 */
+    private static final class Flight<R> {
+
+        final String key;
+        /** 实际发出请求的Call */
+        final Call<R> call;
+
+        private final List<Subscriber<R>> mSubscribers = new ArrayList<>();
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+
+        private boolean isDone;
+        private Response<R> mResponse;
+        /** 请求失败时的错误内容，每个订阅者单独创建ResponseBody */
+        private byte[] mErrorBytes;
+        private MediaType mErrorContentType;
+        private Throwable mError;
+
+        Flight(String key, Call<R> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        synchronized boolean subscribe(Subscriber<R> subscriber) {
+            if (isDone)
+                return false;
+
+            mSubscribers.add(subscriber);
+            subscriber.flight = this;
+            return true;
+        }
+
+        /**
+         * 取消订阅
+         *
+         * @return 已经没有订阅者时返回true，需要取消实际的请求
+         */
+        synchronized boolean unsubscribe(Subscriber<R> subscriber) {
+            mSubscribers.remove(subscriber);
+            return !isDone && mSubscribers.isEmpty();
+        }
+
+        void complete(Response<R> response) {
+            ResponseBody errorBody = response.errorBody();
+            if (!response.isSuccessful() && errorBody != null) {
+                try {
+                    mErrorContentType = errorBody.contentType();
+                    mErrorBytes = errorBody.bytes();
+                } catch (IOException e) {
+                    fail(e);
+                    return;
+                }
+            }
+
+            mResponse = response;
+            dispatch();
+        }
+
+        void fail(Throwable error) {
+            mError = error;
+            dispatch();
+        }
+
+        private void dispatch() {
+            List<Subscriber<R>> subscribers;
+            synchronized (this) {
+                isDone = true;
+                subscribers = new ArrayList<>(mSubscribers);
+                mSubscribers.clear();
+            }
+            mLatch.countDown();
+
+            for (Subscriber<R> subscriber : subscribers) {
+                subscriber.deliver(this);
+            }
+        }
+
+        /**
+         * 等待请求结束
+         *
+         * @param subscriber 同步请求的订阅者
+         */
+        void await(Subscriber<R> subscriber) throws IOException {
+            try {
+                while (!mLatch.await(100, TimeUnit.MILLISECONDS)) {
+                    if (subscriber.call.isCanceled)
+                        throw new IOException("Canceled");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Canceled", e);
+            }
+        }
+
+        /** 为每个订阅者创建结果 */
+        Response<R> newResponse() throws IOException {
+            if (mError instanceof IOException)
+                throw (IOException) mError;
+            if (mError instanceof RuntimeException)
+                throw (RuntimeException) mError;
+            if (mError instanceof Error)
+                throw (Error) mError;
+            if (mError != null)
+                throw new IOException(mError);
+
+            if (mErrorBytes != null)
+                return Response.error(ResponseBody.create(mErrorBytes, mErrorContentType), mResponse.raw());
+
+            return mResponse;
+        }
+    }
+
+
+    /** 请求结果的订阅者，同步请求的callback为空 */
+    private static final class Subscriber<R> {
+
+        final CoalescingCall<R> call;
+        @Nullable
+        final Callback<R> callback;
+
+        volatile Flight<R> flight;
+        /** 保证结果只回调一次 */
+        private final AtomicBoolean mDelivered = new AtomicBoolean();
+
+        Subscriber(CoalescingCall<R> call, @Nullable Callback<R> callback) {
+            this.call = call;
+            this.callback = callback;
+        }
+
+        boolean markDelivered() {
+            return mDelivered.compareAndSet(false, true);
+        }
+
+        void deliver(Flight<R> flight) {
+            if (callback == null || !markDelivered())
+                return;
+
+            Response<R> response;
+            try {
+                response = flight.newResponse();
+            } catch (Throwable e) {
+                callback.onFailure(call, e);
+                return;
+            }
+
+            callback.onResponse(call, response);
+        }
+    }
+
+
+    /** 合并请求的Call */
+    private static final class CoalescingCall<R> implements Call<R> {
+
+        private final Call<R> mDelegate;
+        private final CoalescingCallAdapter<R, ?> mAdapter;
+
+        private volatile boolean isExecuted;
+        private volatile boolean isCanceled;
+        private volatile Subscriber<R> mSubscriber;
+
+        CoalescingCall(Call<R> delegate, CoalescingCallAdapter<R, ?> adapter) {
+            this.mDelegate = delegate;
+            this.mAdapter = adapter;
+        }
+
+        @NonNull
+        @Override
+        public Response<R> execute() throws IOException {
+            markExecuted();
+
+            String key = RequestKeys.create(mDelegate.request());
+            if (key == null)
+                return mDelegate.execute();
+
+            Subscriber<R> subscriber = new Subscriber<>(this, null);
+            mSubscriber = subscriber;
+            Flight<R> flight;
+            if (mAdapter.join(key, subscriber)) {
+                flight = subscriber.flight;
+                try {
+                    flight.complete(mDelegate.execute());
+                } catch (Throwable e) {
+                    flight.fail(e);
+                } finally {
+                    mAdapter.finish(flight);
+                }
+            } else {
+                flight = subscriber.flight;
+                flight.await(subscriber);
+            }
+
+            if (isCanceled)
+                throw new IOException("Canceled");
+
+            return flight.newResponse();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<R> callback) {
+            markExecuted();
+
+            String key = RequestKeys.create(mDelegate.request());
+            if (key == null) {
+                mDelegate.enqueue(new Callback<R>() {
+                    @Override
+                    public void onResponse(@NonNull Call<R> call, @NonNull Response<R> response) {
+                        callback.onResponse(CoalescingCall.this, response);
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<R> call, @NonNull Throwable t) {
+                        callback.onFailure(CoalescingCall.this, t);
+                    }
+                });
+                return;
+            }
+
+            Subscriber<R> subscriber = new Subscriber<>(this, callback);
+            mSubscriber = subscriber;
+            if (!mAdapter.join(key, subscriber))
+                return;
+
+            Flight<R> flight = subscriber.flight;
+            mDelegate.enqueue(new Callback<R>() {
+                @Override
+                public void onResponse(@NonNull Call<R> call, @NonNull Response<R> response) {
+                    mAdapter.finish(flight);
+                    flight.complete(response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<R> call, @NonNull Throwable t) {
+                    mAdapter.finish(flight);
+                    flight.fail(t);
+                }
+            });
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return isExecuted;
+        }
+
+        @Override
+        public void cancel() {
+            isCanceled = true;
+
+            Subscriber<R> subscriber = mSubscriber;
+            Flight<R> flight = subscriber == null ? null : subscriber.flight;
+            if (flight == null) {
+                mDelegate.cancel();
+                return;
+            }
+
+            //其他调用方还在等待时不取消实际的请求
+            if (flight.unsubscribe(subscriber))
+                flight.call.cancel();
+
+            if (subscriber.callback != null && subscriber.markDelivered())
+                subscriber.callback.onFailure(this, new IOException("Canceled"));
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return isCanceled;
+        }
+
+        @NonNull
+        @Override
+        public Call<R> clone() {
+            return new CoalescingCall<>(mDelegate.clone(), mAdapter);
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return mDelegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return mDelegate.timeout();
+        }
+
+        private synchronized void markExecuted() {
+            if (isExecuted)
+                throw new IllegalStateException("Already executed.");
+
+            isExecuted = true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.zhang.lib.http.factory
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.Deferred
+import retrofit2.Call
+import retrofit2.CallAdapter
+import retrofit2.Callback
+import retrofit2.HttpException
+import retrofit2.Invocation
+import retrofit2.Response
+import retrofit2.Retrofit
+import java.lang.reflect.ParameterizedType
+import java.lang.reflect.Type
+
+/**
+ * 返回[Deferred]的协程适配器
+ *
+ * 支持`Deferred<T>`和`Deferred<Response<T>>`，直接在OkHttp的回调线程中完成，不经过RxJava的订阅和线程切换。
+ * 调用[Deferred.cancel]时立即取消OkHttp请求，释放调度器中的并发名额。
+ *
+ * Deferred在接口调用时创建，没有父Job，取消调用方的协程只会结束`await()`，不会取消请求，
+ * 需要自行调用[Deferred.cancel]。需要随协程一起取消时使用`suspend`接口，由Retrofit直接支持，不需要此适配器
+ *
+ * @author ZhangXiaoMing 2026-10-19 00:35 周一
+ */
+class CoroutineCallAdapterFactory private constructor() : CallAdapter.Factory() {
+
+    companion object {
+
+        @JvmStatic
+        fun create(): CoroutineCallAdapterFactory = CoroutineCallAdapterFactory()
+    }
+
+    override fun get(returnType: Type, annotations: Array<out Annotation>, retrofit: Retrofit): CallAdapter<*, *>? {
+        if (getRawType(returnType) != Deferred::class.java)
+            return null
+        check(returnType is ParameterizedType) { "Deferred return type must be parameterized as Deferred<Foo> or Deferred<out Foo>" }
+
+        val responseType = getParameterUpperBound(0, returnType)
+        if (getRawType(responseType) != Response::class.java)
+            return BodyCallAdapter<Any>(responseType)
+
+        check(responseType is ParameterizedType) { "Response must be parameterized as Response<Foo> or Response<out Foo>" }
+        return ResponseCallAdapter<Any>(getParameterUpperBound(0, responseType))
+    }
+
+
+    private class BodyCallAdapter<T : Any>(private val responseType: Type) : CallAdapter<T, Deferred<T>> {
+
+        override fun responseType(): Type = responseType
+
+        override fun adapt(call: Call<T>): Deferred<T> {
+            val deferred = CompletableDeferred<T>()
+            call.enqueue(BodyCallback(call, deferred))
+            return deferred
+        }
+    }
+
+
+    private class ResponseCallAdapter<T : Any>(private val responseType: Type) : CallAdapter<T, Deferred<Response<T>>> {
+
+        override fun responseType(): Type = responseType
+
+        override fun adapt(call: Call<T>): Deferred<Response<T>> {
+            val deferred = CompletableDeferred<Response<T>>()
+            call.enqueue(ResponseCallback(call, deferred))
+            return deferred
+        }
+    }
+
+
+    /**
+     * 请求回调，同时作为Deferred的完成回调，取消时取消请求，每个请求只创建这一个对象
+     */
+    private abstract class DeferredCallback<T, R>(
+        private val call: Call<T>,
+        protected val deferred: CompletableDeferred<R>,
+    ) : Callback<T>, (Throwable?) -> Unit {
+
+        init {
+            deferred.invokeOnCompletion(this)
+        }
+
+        override fun invoke(cause: Throwable?) {
+            if (deferred.isCancelled)
+                call.cancel()
+        }
+
+        override fun onFailure(call: Call<T>, t: Throwable) {
+            deferred.completeExceptionally(t)
+        }
+    }
+
+
+    private class BodyCallback<T : Any>(call: Call<T>, deferred: CompletableDeferred<T>) : DeferredCallback<T, T>(call, deferred) {
+
+        override fun onResponse(call: Call<T>, response: Response<T>) {
+            if (!response.isSuccessful) {
+                deferred.completeExceptionally(HttpException(response))
+                return
+            }
+
+            val body = response.body()
+            if (body != null) {
+                deferred.complete(body)
+                return
+            }
+
+            val invocation = call.request().tag(Invocation::class.java)
+            val method = invocation?.method()
+            deferred.completeExceptionally(
+                KotlinNullPointerException(
+                    "Response from ${method?.declaringClass?.name}.${method?.name} was null but response body type was declared as non-null"
+                )
+            )
+        }
+    }
+
+
+    private class ResponseCallback<T : Any>(call: Call<T>, deferred: CompletableDeferred<Response<T>>) :
+        DeferredCallback<T, Response<T>>(call, deferred) {
+
+        override fun onResponse(call: Call<T>, response: Response<T>) {
+            deferred.complete(response)
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.zhang.lib.http.factory;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 解析的同时提取最外层指定字段的JsonReader
+ * <p>
+ * TypeAdapter读取字段值或者跳过未声明的字段时顺便记录下来，不需要再单独解析一次
+ *
+ * @author ZhangXiaoMing 2026-10-18 11:58 周日
+ */
+final class EnvelopeJsonReader extends JsonReader {
+
+    private final Set<String> mKeys;
+
+    /** 提取到的字段 */
+    private Map<String, String> mEnvelope;
+    /** 当前嵌套层级，最外层对象内为1 */
+    private int mDepth;
+    /** 等待读取值的字段名 */
+    private String mPendingKey;
+
+    EnvelopeJsonReader(@NonNull Reader in, @NonNull Set<String> keys) {
+        super(in);
+        this.mKeys = keys;
+    }
+
+    /** 获取提取到的字段 */
+    @NonNull
+    Map<String, String> getEnvelope() {
+        return mEnvelope == null ? Collections.<String, String>emptyMap() : mEnvelope;
+    }
+
+    /** 不需要转换结果时，只遍历最外层对象提取字段 */
+    void readEnvelope() throws IOException {
+        if (peek() != JsonToken.BEGIN_OBJECT)
+            return;
+
+        beginObject();
+        while (hasNext()) {
+            nextName();
+            skipValue();
+        }
+        endObject();
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        mPendingKey = null;
+        super.beginArray();
+        mDepth++;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        super.endArray();
+        mDepth--;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        mPendingKey = null;
+        super.beginObject();
+        mDepth++;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        super.endObject();
+        mDepth--;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        String name = super.nextName();
+        mPendingKey = mDepth == 1 && mKeys.contains(name) ? name : null;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        String value = super.nextString();
+        capture(value);
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        boolean value = super.nextBoolean();
+        if (mPendingKey != null)
+            capture(String.valueOf(value));
+        return value;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        super.nextNull();
+        capture(null);
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        double value = super.nextDouble();
+        if (mPendingKey != null)
+            capture(String.valueOf(value));
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        long value = super.nextLong();
+        if (mPendingKey != null)
+            capture(String.valueOf(value));
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        int value = super.nextInt();
+        if (mPendingKey != null)
+            capture(String.valueOf(value));
+        return value;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        if (mPendingKey == null) {
+            super.skipValue();
+            return;
+        }
+
+        //需要提取的字段没有被TypeAdapter声明，读取后再丢弃
+        switch (peek()) {
+            case STRING:
+            case NUMBER:
+                nextString();
+                break;
+            case BOOLEAN:
+                nextBoolean();
+                break;
+            case NULL:
+                nextNull();
+                break;
+            default:
+                mPendingKey = null;
+                super.skipValue();
+                break;
+        }
+    }
+
+    /**
+     * 记录字段值
+     *
+     * @param value 字段值
+     */
+    private void capture(String value) {
+        if (mPendingKey == null)
+            return;
+
+        if (mEnvelope == null)
+            mEnvelope = new HashMap<>();
+
+        mEnvelope.put(mPendingKey, value);
+        mPendingKey = null;
+    }
+}
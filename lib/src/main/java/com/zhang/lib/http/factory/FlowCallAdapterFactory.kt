@@ -0,0 +1,59 @@
+package com.zhang.lib.http.factory
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import retrofit2.Call
+import retrofit2.CallAdapter
+import retrofit2.Response
+import retrofit2.Retrofit
+import retrofit2.await
+import retrofit2.awaitResponse
+import java.lang.reflect.ParameterizedType
+import java.lang.reflect.Type
+
+/**
+ * 返回[Flow]的协程适配器
+ *
+ * 支持`Flow<T>`和`Flow<Response<T>>`，冷流，每次collect发起一次请求并发送一个结果。
+ * 取消collect所在的协程时立即取消OkHttp请求
+ *
+ * @author ZhangXiaoMing 2026-10-19 00:45 周一
+ */
+class FlowCallAdapterFactory private constructor() : CallAdapter.Factory() {
+
+    companion object {
+
+        @JvmStatic
+        fun create(): FlowCallAdapterFactory = FlowCallAdapterFactory()
+    }
+
+    override fun get(returnType: Type, annotations: Array<out Annotation>, retrofit: Retrofit): CallAdapter<*, *>? {
+        if (getRawType(returnType) != Flow::class.java)
+            return null
+        check(returnType is ParameterizedType) { "Flow return type must be parameterized as Flow<Foo> or Flow<out Foo>" }
+
+        val responseType = getParameterUpperBound(0, returnType)
+        if (getRawType(responseType) != Response::class.java)
+            return BodyCallAdapter<Any>(responseType)
+
+        check(responseType is ParameterizedType) { "Response must be parameterized as Response<Foo> or Response<out Foo>" }
+        return ResponseCallAdapter<Any>(getParameterUpperBound(0, responseType))
+    }
+
+
+    private class BodyCallAdapter<T : Any>(private val responseType: Type) : CallAdapter<T, Flow<T>> {
+
+        override fun responseType(): Type = responseType
+
+        //Call只能执行一次，每次collect复制一个新的请求
+        override fun adapt(call: Call<T>): Flow<T> = flow { emit(call.clone().await()) }
+    }
+
+
+    private class ResponseCallAdapter<T : Any>(private val responseType: Type) : CallAdapter<T, Flow<Response<T>>> {
+
+        override fun responseType(): Type = responseType
+
+        override fun adapt(call: Call<T>): Flow<Response<T>> = flow { emit(call.clone().awaitResponse()) }
+    }
+}
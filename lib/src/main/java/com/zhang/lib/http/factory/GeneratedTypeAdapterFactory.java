@@ -0,0 +1,93 @@
+package com.zhang.lib.http.factory;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.zhang.lib.http.annotation.GenerateTypeAdapter;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查找编译时生成的TypeAdapter
+ * <p>
+ * 只处理添加了{@link GenerateTypeAdapter}注解的类，找不到生成的TypeAdapter时返回null，
+ * 由Gson继续使用反射解析
+ *
+ * @author ZhangXiaoMing 2026-10-18 20:10 周日
+ */
+public final class GeneratedTypeAdapterFactory implements TypeAdapterFactory {
+
+    /** 生成的TypeAdapter类名后缀 */
+    public static final String SUFFIX = "_GsonTypeAdapter";
+
+    private static final GeneratedTypeAdapterFactory INSTANCE = new GeneratedTypeAdapterFactory();
+
+    /** 没有生成TypeAdapter的类 */
+    private static final Constructor<?> MISSING;
+
+    static {
+        try {
+            MISSING = Object.class.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /** 数据类对应的生成TypeAdapter的构造方法 */
+    private final ConcurrentHashMap<Class<?>, Constructor<?>> mConstructorCache = new ConcurrentHashMap<>();
+
+    private GeneratedTypeAdapterFactory() {
+    }
+
+    public static GeneratedTypeAdapterFactory getInstance() {
+        return INSTANCE;
+    }
+
+    /** 创建注册了生成TypeAdapter的默认Gson */
+    @NonNull
+    public static Gson newGson() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(INSTANCE)
+                .create();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType != type.getType() || !rawType.isAnnotationPresent(GenerateTypeAdapter.class))
+            return null;
+
+        Constructor<?> constructor = findConstructor(rawType);
+        if (constructor == MISSING)
+            return null;
+
+        try {
+            return (TypeAdapter<T>) constructor.newInstance(gson);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("create " + constructor.getDeclaringClass().getName() + " failed", e);
+        }
+    }
+
+    private Constructor<?> findConstructor(Class<?> rawType) {
+        Constructor<?> constructor = mConstructorCache.get(rawType);
+        if (constructor != null)
+            return constructor;
+
+        try {
+            ClassLoader loader = rawType.getClassLoader();
+            Class<?> adapterClass = Class.forName(rawType.getName().replace('$', '_') + SUFFIX, true, loader);
+            constructor = adapterClass.getConstructor(Gson.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            constructor = MISSING;
+        }
+
+        Constructor<?> previous = mConstructorCache.putIfAbsent(rawType, constructor);
+        return previous != null ? previous : constructor;
+    }
+}
@@ -0,0 +1,106 @@
+package com.zhang.lib.http.factory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.interfaces.IWireCodec;
+import com.zhang.lib.http.utils.MediaTypes;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * 按照Content-Type选择数据格式的解析工厂
+ * <p>
+ * 请求结果是已添加的二进制格式时使用对应的{@link IWireCodec}解析，否则交给后面的解析工厂（默认为JSON）。
+ * 需要放在{@link XMConverterFactory}之前
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:25 周日
+ */
+public class NegotiatingConverterFactory extends Converter.Factory {
+
+    private final List<IWireCodec> mCodecList;
+
+    private NegotiatingConverterFactory(List<IWireCodec> codecList) {
+        this.mCodecList = codecList;
+    }
+
+    public static NegotiatingConverterFactory create(@NonNull List<IWireCodec> codecList) {
+        return new NegotiatingConverterFactory(new ArrayList<>(codecList));
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type,
+                                                            @NonNull Annotation[] annotations,
+                                                            @NonNull Retrofit retrofit) {
+        List<IWireCodec> codecList = getSupportedCodecList(type);
+        if (codecList.isEmpty())
+            return null;
+
+        Converter<ResponseBody, ?> fallback = retrofit.nextResponseBodyConverter(this, type, annotations);
+        return (Converter<ResponseBody, Object>) body -> {
+            IWireCodec codec = findCodec(codecList, body.contentType());
+            if (codec == null)
+                return fallback.convert(body);
+
+            try {
+                return codec.decode(type, body.source());
+            } finally {
+                body.close();
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(@NonNull Type type,
+                                                          @NonNull Annotation[] parameterAnnotations,
+                                                          @NonNull Annotation[] methodAnnotations,
+                                                          @NonNull Retrofit retrofit) {
+        List<IWireCodec> codecList = getSupportedCodecList(type);
+        if (codecList.isEmpty())
+            return null;
+
+        IWireCodec codec = codecList.get(0);
+        return (Converter<Object, RequestBody>) value -> {
+            Buffer buffer = new Buffer();
+            codec.encode(value, type, buffer);
+            return RequestBody.create(buffer.readByteString(), codec.mediaType());
+        };
+    }
+
+    /**
+     * 支持此类型的数据格式
+     *
+     * @param type 请求参数或者请求结果类型
+     */
+    @NonNull
+    public List<IWireCodec> getSupportedCodecList(@NonNull Type type) {
+        List<IWireCodec> result = new ArrayList<>();
+        for (IWireCodec codec : mCodecList) {
+            if (codec.supports(type))
+                result.add(codec);
+        }
+
+        return result;
+    }
+
+
+    @Nullable
+    private static IWireCodec findCodec(List<IWireCodec> codecList, MediaType contentType) {
+        for (IWireCodec codec : codecList) {
+            if (MediaTypes.isSameType(codec.mediaType(), contentType))
+                return codec;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,259 @@
+package com.zhang.lib.http.factory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.inteceptor.ResponseDecryptInterceptor;
+import com.zhang.lib.http.pipeline.ComputePipeline;
+import com.zhang.lib.http.utils.RequestAnnotations;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Invocation;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.HEAD;
+import retrofit2.http.Streaming;
+
+/**
+ * 在计算线程池中解密和解析请求结果的适配器工厂
+ * <p>
+ * 向Retrofit声明的解析类型是{@link ResponseBody}，网络线程只把请求结果读取到内存中，
+ * 延迟的解密和实际类型的解析都提交到{@link ComputePipeline}执行，再交给后面的适配器。
+ * 必须添加在所有适配器之前，添加了{@link Streaming}注解的接口和HEAD请求不处理
+ *
+ * @author ZhangXiaoMing 2026-10-19 00:20 周一
+ */
+public final class PipelineCallAdapterFactory extends CallAdapter.Factory {
+
+    private final ComputePipeline mPipeline;
+
+    private PipelineCallAdapterFactory(ComputePipeline pipeline) {
+        this.mPipeline = pipeline;
+    }
+
+    public static PipelineCallAdapterFactory create(@NonNull ComputePipeline pipeline) {
+        return new PipelineCallAdapterFactory(pipeline);
+    }
+
+    /**
+     * 请求是否由此工厂处理，处理的请求在{@link ResponseDecryptInterceptor}中不解密
+     *
+     * @param request 请求
+     */
+    public static boolean isPipelined(@NonNull Request request) {
+        return request.tag(Invocation.class) != null
+                && !"HEAD".equals(request.method())
+                && RequestAnnotations.get(request, Streaming.class) == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Streaming || annotation instanceof HEAD)
+                return null;
+        }
+
+        CallAdapter<Object, Object> delegate = (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+        Converter<ResponseBody, Object> converter = retrofit.responseBodyConverter(delegate.responseType(), annotations);
+        return new PipelineCallAdapter<>(delegate, converter, mPipeline);
+    }
+
+
+    /** 每个接口方法一个适配器，保存实际类型的解析器 */
+    private static final class PipelineCallAdapter<R, T> implements CallAdapter<ResponseBody, T> {
+
+        private final CallAdapter<R, T> mDelegate;
+        private final Converter<ResponseBody, R> mConverter;
+        private final ComputePipeline mPipeline;
+
+        PipelineCallAdapter(CallAdapter<R, T> delegate, Converter<ResponseBody, R> converter, ComputePipeline pipeline) {
+            this.mDelegate = delegate;
+            this.mConverter = converter;
+            this.mPipeline = pipeline;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return ResponseBody.class;
+        }
+
+        @NonNull
+        @Override
+        public T adapt(@NonNull Call<ResponseBody> call) {
+            return mDelegate.adapt(new PipelineCall<>(call, mConverter, mPipeline));
+        }
+    }
+
+
+    /** 网络请求结束后在计算线程中解密和解析的Call */
+    private static final class PipelineCall<R> implements Call<R> {
+
+        private final Call<ResponseBody> mDelegate;
+        private final Converter<ResponseBody, R> mConverter;
+        private final ComputePipeline mPipeline;
+
+        PipelineCall(Call<ResponseBody> delegate, Converter<ResponseBody, R> converter, ComputePipeline pipeline) {
+            this.mDelegate = delegate;
+            this.mConverter = converter;
+            this.mPipeline = pipeline;
+        }
+
+        @NonNull
+        @Override
+        public Response<R> execute() throws IOException {
+            Response<ResponseBody> response = mDelegate.execute();
+
+            ConvertTask<R> task = new ConvertTask<>(this, response);
+            mPipeline.execute(task);
+            return task.await();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<R> callback) {
+            mDelegate.enqueue(new Callback<ResponseBody>() {
+                @Override
+                public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                    mPipeline.execute(() -> {
+                        Response<R> result;
+                        try {
+                            result = convert(response);
+                        } catch (Throwable e) {
+                            callback.onFailure(PipelineCall.this, e);
+                            return;
+                        }
+
+                        callback.onResponse(PipelineCall.this, result);
+                    });
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                    callback.onFailure(PipelineCall.this, t);
+                }
+            });
+        }
+
+        /**
+         * 解密和解析请求结果，在计算线程中执行
+         *
+         * @param response 读取到内存中的请求结果
+         */
+        Response<R> convert(Response<ResponseBody> response) throws IOException {
+            okhttp3.Response raw = response.raw();
+            ResponseBody body = response.body();
+            if (!response.isSuccessful())
+                return Response.error(response.errorBody(), raw);
+
+            boolean isDeferred = raw.header(ResponseDecryptInterceptor.HEADER_DEFERRED_DECRYPT) != null;
+            if (isDeferred)
+                raw = raw.newBuilder()
+                        .removeHeader(ResponseDecryptInterceptor.HEADER_DEFERRED_DECRYPT)
+                        .build();
+            if (body == null)
+                return Response.success(null, raw);
+
+            ResponseBody content = isDeferred ? ResponseDecryptInterceptor.decrypt(raw, body) : body;
+            try {
+                return Response.success(mConverter.convert(content), raw);
+            } finally {
+                content.close();
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return mDelegate.isExecuted();
+        }
+
+        @Override
+        public void cancel() {
+            mDelegate.cancel();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return mDelegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Call<R> clone() {
+            return new PipelineCall<>(mDelegate.clone(), mConverter, mPipeline);
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return mDelegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return mDelegate.timeout();
+        }
+    }
+
+
+    /** 同步请求提交到计算线程的任务，调用线程等待结果 */
+    private static final class ConvertTask<R> implements Runnable {
+
+        private final PipelineCall<R> mCall;
+        private final Response<ResponseBody> mResponse;
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+
+        private Response<R> mResult;
+        private Throwable mError;
+
+        ConvertTask(PipelineCall<R> call, Response<ResponseBody> response) {
+            this.mCall = call;
+            this.mResponse = response;
+        }
+
+        @Override
+        public void run() {
+            try {
+                mResult = mCall.convert(mResponse);
+            } catch (Throwable e) {
+                mError = e;
+            } finally {
+                mLatch.countDown();
+            }
+        }
+
+        Response<R> await() throws IOException {
+            try {
+                mLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                mCall.cancel();
+                throw new IOException("Canceled", e);
+            }
+
+            if (mError instanceof IOException)
+                throw (IOException) mError;
+            if (mError instanceof RuntimeException)
+                throw (RuntimeException) mError;
+            if (mError instanceof Error)
+                throw (Error) mError;
+            if (mError != null)
+                throw new IOException(mError);
+
+            return mResult;
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.zhang.lib.http.factory;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonToken;
 import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.interfaces.IResponseEnvelopeAnalyzer;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
@@ -25,17 +33,26 @@ public class XMConverterFactory extends Converter.Factory {
 
 
     private final Converter.Factory mFactory;
+    /** 默认解析使用的Gson，自定义解析工厂时为空 */
+    @Nullable
+    private final Gson mGson;
 
-    private XMConverterFactory() {
-        mFactory = GsonConverterFactory.create();
+    private XMConverterFactory(Gson gson) {
+        mGson = gson;
+        mFactory = GsonConverterFactory.create(gson);
     }
 
     private XMConverterFactory(Converter.Factory factory) {
+        this.mGson = null;
         this.mFactory = factory;
     }
 
     public static XMConverterFactory create() {
-        return new XMConverterFactory();
+        return new XMConverterFactory(GeneratedTypeAdapterFactory.newGson());
+    }
+
+    public static XMConverterFactory create(@NonNull Gson gson) {
+        return new XMConverterFactory(gson);
     }
 
     public static XMConverterFactory create(Converter.Factory factory) {
@@ -48,13 +65,22 @@ public class XMConverterFactory extends Converter.Factory {
                                                             @NonNull Retrofit retrofit) {
         Converter<ResponseBody, ?> converter = mFactory.responseBodyConverter(type, annotations, retrofit);
 
+        if (type == String.class || converter == null)
+            return (Converter<ResponseBody, Object>) this::convertString;
+
+        //只有默认Gson解析的时候才可以在同一次解析中提取外层字段
+        TypeAdapter<?> adapter = mGson == null ? null : mGson.getAdapter(TypeToken.get(type));
+
         return (Converter<ResponseBody, Object>) responseBody -> {
-            analyseResponseContent(responseBody);
+            RetrofitSDK sdk = RetrofitSDK.getInstance();
+            if (sdk.hasResponseAnalyzer())
+                analyseResponseContent(responseBody);
 
-            if (type == String.class || converter == null)
-                return responseBody.string();
+            IResponseEnvelopeAnalyzer envelopeAnalyzer = sdk.getResponseEnvelopeAnalyzer();
+            if (envelopeAnalyzer == null || adapter == null)
+                return converter.convert(responseBody);
 
-            return converter.convert(responseBody);
+            return convertWithEnvelope(responseBody, adapter, envelopeAnalyzer);
         };
     }
 
@@ -67,6 +93,45 @@ public class XMConverterFactory extends Converter.Factory {
     }
 
 
+    /** 请求结果直接返回String，只读取一次 */
+    private Object convertString(ResponseBody body) throws IOException {
+        String content = body.string();
+
+        RetrofitSDK sdk = RetrofitSDK.getInstance();
+        sdk.analyseResponseContent(content);
+
+        IResponseEnvelopeAnalyzer envelopeAnalyzer = sdk.getResponseEnvelopeAnalyzer();
+        if (envelopeAnalyzer != null) {
+            EnvelopeJsonReader reader = new EnvelopeJsonReader(new StringReader(content), envelopeAnalyzer.getEnvelopeKeys());
+            reader.setLenient(true);
+            try {
+                reader.readEnvelope();
+            } catch (Exception e) {
+                //不是JSON格式的请求结果，不需要提取
+            }
+            envelopeAnalyzer.analyseResponseEnvelope(reader.getEnvelope());
+        }
+
+        return content;
+    }
+
+    /** 解析请求结果的同时提取外层字段 */
+    private Object convertWithEnvelope(ResponseBody body,
+                                       TypeAdapter<?> adapter,
+                                       IResponseEnvelopeAnalyzer envelopeAnalyzer) throws IOException {
+        EnvelopeJsonReader reader = new EnvelopeJsonReader(body.charStream(), envelopeAnalyzer.getEnvelopeKeys());
+        try {
+            Object result = adapter.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT)
+                throw new JsonIOException("JSON document was not fully consumed.");
+
+            envelopeAnalyzer.analyseResponseEnvelope(reader.getEnvelope());
+            return result;
+        } finally {
+            body.close();
+        }
+    }
+
     /** 分析请求结果 */
     private void analyseResponseContent(ResponseBody body) {
         if (body == null)
@@ -22,9 +22,11 @@ public class XMGsonConverterFactory extends Converter.Factory {
     /**
      * Create an instance using a default {@link Gson} instance for conversion. Encoding to JSON and
      * decoding from JSON (when no charset is specified by a header) will use UTF-8.
+     * <p>
+     * 默认Gson注册了{@link GeneratedTypeAdapterFactory}，添加了{@link com.zhang.lib.http.annotation.GenerateTypeAdapter}的类不再使用反射解析
      */
     public static XMGsonConverterFactory create() {
-        return create(new Gson());
+        return create(GeneratedTypeAdapterFactory.newGson());
     }
 
     /**
@@ -0,0 +1,129 @@
+package com.zhang.lib.http.inteceptor;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.interfaces.IWireCodec;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * 按照接口的返回值类型设置Accept，声明支持的二进制格式，服务器不支持时仍然可以返回JSON
+ * <p>
+ * 每个接口方法的Accept只计算一次，已经设置Accept的请求不处理
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:35 周日
+ */
+public class ContentNegotiationInterceptor implements Interceptor {
+
+    private static final String HEADER_ACCEPT = "Accept";
+    /** 二进制格式之后的默认格式 */
+    private static final String DEFAULT_ACCEPT = "application/json; q=0.9";
+
+    /** 包装请求结果的类型，取第一个泛型参数作为请求结果类型 */
+    private static final Set<String> WRAPPER_TYPES = new HashSet<>(Arrays.asList(
+            "retrofit2.Call",
+            "retrofit2.Response",
+            "retrofit2.adapter.rxjava3.Result",
+            "io.reactivex.rxjava3.core.Observable",
+            "io.reactivex.rxjava3.core.Flowable",
+            "io.reactivex.rxjava3.core.Single",
+            "io.reactivex.rxjava3.core.Maybe",
+            "java.util.concurrent.CompletableFuture",
+            "kotlinx.coroutines.Deferred",
+            "kotlinx.coroutines.flow.Flow"));
+    private static final String CONTINUATION = "kotlin.coroutines.Continuation";
+
+    private final List<IWireCodec> mCodecList;
+    /** 接口方法对应的Accept，不需要设置时为空字符串 */
+    private final Map<Method, String> mAcceptCache = new ConcurrentHashMap<>();
+
+    public ContentNegotiationInterceptor(@NonNull List<IWireCodec> codecList) {
+        this.mCodecList = codecList;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null || request.header(HEADER_ACCEPT) != null)
+            return chain.proceed(request);
+
+        String accept = getAccept(invocation.method());
+        if (accept.isEmpty())
+            return chain.proceed(request);
+
+        return chain.proceed(request.newBuilder()
+                .header(HEADER_ACCEPT, accept)
+                .build());
+    }
+
+    private String getAccept(Method method) {
+        String accept = mAcceptCache.get(method);
+        if (accept != null)
+            return accept;
+
+        Type type = getResponseType(method);
+        StringBuilder builder = new StringBuilder();
+        for (IWireCodec codec : mCodecList) {
+            if (!codec.supports(type))
+                continue;
+
+            builder.append(codec.mediaType().type())
+                    .append('/')
+                    .append(codec.mediaType().subtype())
+                    .append(", ");
+        }
+
+        accept = builder.length() == 0 ? "" : builder.append(DEFAULT_ACCEPT).toString();
+        mAcceptCache.put(method, accept);
+        return accept;
+    }
+
+    /** 接口方法的请求结果类型，suspend方法从最后一个Continuation参数中获取 */
+    private static Type getResponseType(Method method) {
+        Type[] parameterTypes = method.getGenericParameterTypes();
+        if (parameterTypes.length > 0) {
+            Type last = parameterTypes[parameterTypes.length - 1];
+            if (last instanceof ParameterizedType
+                    && CONTINUATION.equals(((Class<?>) ((ParameterizedType) last).getRawType()).getName())) {
+                Type type = ((ParameterizedType) last).getActualTypeArguments()[0];
+                if (type instanceof WildcardType)
+                    type = ((WildcardType) type).getLowerBounds()[0];
+
+                return unwrap(type);
+            }
+        }
+
+        return unwrap(method.getGenericReturnType());
+    }
+
+    private static Type unwrap(Type type) {
+        while (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            if (!WRAPPER_TYPES.contains(((Class<?>) parameterizedType.getRawType()).getName()))
+                break;
+
+            type = parameterizedType.getActualTypeArguments()[0];
+            if (type instanceof WildcardType)
+                type = ((WildcardType) type).getUpperBounds()[0];
+        }
+
+        return type;
+    }
+}
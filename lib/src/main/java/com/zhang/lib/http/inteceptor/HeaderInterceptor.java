@@ -6,12 +6,14 @@ import androidx.annotation.NonNull;
 
 import com.zhang.lib.http.RetrofitSDK;
 import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.interfaces.IHeaderProvider;
 import com.zhang.library.utils.LogUtils;
 
 import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
+import okhttp3.Headers;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -23,6 +25,8 @@ import okhttp3.Response;
  */
 public class HeaderInterceptor implements Interceptor {
 
+    /** {@link IHeaderProvider}生成的Header缓存 */
+    private volatile HeaderSnapshot mSnapshot;
 
     @NonNull
     @Override
@@ -40,9 +44,13 @@ public class HeaderInterceptor implements Interceptor {
      * @param request 请求
      */
     private Request processAddHeader(Request request) {
+        IHeaderProvider provider = RetrofitSDK.getInstance().getHeaderProvider();
+        if (provider != null)
+            return mergeHeaders(request, getSnapshot(provider).headers);
+
         Map<String, String> headerMap = RetrofitSDK.getInstance().generateRequestHeaders();
 
-        Request.Builder builder = request.newBuilder();
+        Request.Builder builder = null;
 
         Set<Map.Entry<String, String>> entrySet = headerMap.entrySet();
         for (Map.Entry<String, String> entry : entrySet) {
@@ -58,9 +66,77 @@ public class HeaderInterceptor implements Interceptor {
             if (!TextUtils.isEmpty(request.header(key)))
                 continue;
 
+            if (builder == null)
+                builder = request.newBuilder();
+
             builder.addHeader(key, value);
         }
 
-        return builder.build();
+        return builder == null ? request : builder.build();
+    }
+
+    /**
+     * 合并Header缓存，只添加接口没有指定的Header，没有需要添加的Header时直接返回原请求
+     *
+     * @param request 请求
+     * @param headers 已校验的Header
+     */
+    private Request mergeHeaders(Request request, Headers headers) {
+        Request.Builder builder = null;
+        for (int index = 0, size = headers.size(); index < size; index++) {
+            String name = headers.name(index);
+
+            //接口已经指定了 那么不设置
+            if (!TextUtils.isEmpty(request.header(name)))
+                continue;
+
+            if (builder == null)
+                builder = request.newBuilder();
+
+            builder.addHeader(name, headers.value(index));
+        }
+
+        return builder == null ? request : builder.build();
+    }
+
+    /**
+     * 获取Header缓存，版本号变化时重新生成并校验
+     *
+     * @param provider Header提供者
+     */
+    private HeaderSnapshot getSnapshot(IHeaderProvider provider) {
+        long version = provider.getHeaderVersion();
+        HeaderSnapshot snapshot = mSnapshot;
+        if (snapshot != null && snapshot.provider == provider && snapshot.version == version)
+            return snapshot;
+
+        Headers headers = provider.generateRequestHeaders();
+        Headers.Builder builder = new Headers.Builder();
+        for (int index = 0, size = headers.size(); index < size; index++) {
+            //异常数据，不处理
+            if (TextUtils.isEmpty(headers.value(index)))
+                continue;
+
+            builder.add(headers.name(index), headers.value(index));
+        }
+
+        snapshot = new HeaderSnapshot(provider, version, builder.build());
+        mSnapshot = snapshot;
+        return snapshot;
+    }
+
+
+    /** 不可变的Header缓存 */
+    private static final class HeaderSnapshot {
+
+        final IHeaderProvider provider;
+        final long version;
+        final Headers headers;
+
+        HeaderSnapshot(IHeaderProvider provider, long version, Headers headers) {
+            this.provider = provider;
+            this.version = version;
+            this.headers = headers;
+        }
     }
 }
@@ -0,0 +1,305 @@
+package com.zhang.lib.http.inteceptor;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.annotation.CachePolicy;
+import com.zhang.lib.http.utils.RequestAnnotations;
+import com.zhang.lib.http.utils.RequestKeys;
+import com.zhang.library.utils.LogUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * 接口请求结果缓存拦截器
+ * <p>
+ * OkHttp的{@link okhttp3.Cache}只缓存GET请求，这里在内存中缓存添加了{@link CachePolicy}注解的接口，
+ * key为接口地址、请求体的摘要和区分用户的Header。要添加在{@link HeaderInterceptor}之后、
+ * {@link RequestEncryptionInterceptor}之前，此时已经有登录信息等Header，请求体还没有加密，
+ * 相同的参数得到相同的key，缓存的也是解密后的请求结果。
+ * <p>
+ * 缓存过期但还在staleWhileRevalidate时间内时，直接返回缓存，同时复制一个请求在后台刷新缓存。
+ * 默认按照{@link #DEFAULT_VARY_HEADERS}区分用户，Cookie包括OkHttpClient的CookieJar中的Cookie，
+ * 登录信息放在其他Header时需要{@link #setVaryHeaders(String...)}，
+ * 也可以在退出登录时通过{@link RetrofitSDK#getPostResponseCacheInterceptor()}调用{@link #evictAll()}
+ *
+ * @author ZhangXiaoMing 2026-10-18 23:25 周日
+ */
+public class PostResponseCacheInterceptor implements Interceptor {
+
+    private static final String TAG = "PostResponseCacheInterceptor";
+
+    /** 默认缓存大小，单位：B */
+    public static final int DEFAULT_MAX_SIZE = 2 * 1024 * 1024;
+    /** 默认区分用户的Header */
+    public static final String[] DEFAULT_VARY_HEADERS = {"Authorization", "Cookie"};
+
+    private static final String HEADER_COOKIE = "Cookie";
+
+    private final LruCache<String, Entry> mCache;
+    /** 单个请求结果的最大长度，超过时不缓存 */
+    private final int mMaxEntrySize;
+    /** 值不同时分别缓存的Header */
+    private volatile String[] mVaryHeaders = DEFAULT_VARY_HEADERS;
+
+    /** 正在后台刷新的缓存key */
+    private final Set<String> mRefreshingKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    /** 后台刷新的请求，这些请求不读取缓存 */
+    private final Set<Call> mRefreshCalls = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /** 命中有效缓存的次数 */
+    private final AtomicLong mHitCount = new AtomicLong();
+    /** 命中过期缓存的次数 */
+    private final AtomicLong mStaleHitCount = new AtomicLong();
+    /** 没有命中缓存的次数 */
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    public PostResponseCacheInterceptor() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize 缓存的最大字节数，单个请求结果超过1/8时不缓存
+     */
+    public PostResponseCacheInterceptor(int maxSize) {
+        this.mCache = new LruCache<String, Entry>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Entry value) {
+                return key.length() + value.body.size();
+            }
+        };
+        this.mMaxEntrySize = Math.max(maxSize / 8, 1);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        CachePolicy policy = RequestAnnotations.get(request, CachePolicy.class);
+        if (policy == null)
+            return chain.proceed(request);
+
+        //Header拦截器可能添加时间戳等每次都不同的Header，只使用区分用户的Header
+        String key = RequestKeys.create(withCookies(request), Arrays.asList(mVaryHeaders));
+        if (key == null)
+            return chain.proceed(request);
+
+        if (mRefreshCalls.contains(chain.call()))
+            return proceedAndStore(chain, request, key);
+
+        Entry entry = mCache.get(key);
+        if (entry != null) {
+            long age = SystemClock.elapsedRealtime() - entry.storedAt;
+            long maxAge = TimeUnit.SECONDS.toMillis(policy.maxAge());
+            if (age <= maxAge) {
+                mHitCount.incrementAndGet();
+                LogUtils.debug(TAG, "PostResponseCacheInterceptor>>>hit %s", request.url());
+                return entry.toResponse(request, false);
+            }
+
+            if (age <= maxAge + TimeUnit.SECONDS.toMillis(policy.staleWhileRevalidate())) {
+                mStaleHitCount.incrementAndGet();
+                LogUtils.debug(TAG, "PostResponseCacheInterceptor>>>stale %s", request.url());
+                refresh(chain, key);
+                return entry.toResponse(request, true);
+            }
+
+            mCache.remove(key);
+        }
+
+        mMissCount.incrementAndGet();
+        return proceedAndStore(chain, request, key);
+    }
+
+    /**
+     * 设置值不同时分别缓存的Header，例如放在自定义Header中的登录信息
+     *
+     * @param names Header名称，为空时不区分
+     */
+    public PostResponseCacheInterceptor setVaryHeaders(String... names) {
+        this.mVaryHeaders = names == null ? new String[0] : names.clone();
+        return this;
+    }
+
+    /** 清空缓存，例如退出登录时 */
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    /** 缓存当前占用的字节数 */
+    public int size() {
+        return mCache.size();
+    }
+
+    /** 命中有效缓存的次数 */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /** 命中过期缓存并在后台刷新的次数 */
+    public long getStaleHitCount() {
+        return mStaleHitCount.get();
+    }
+
+    /** 没有命中缓存的次数 */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+
+    /**
+     * CookieJar的Cookie在BridgeInterceptor中才会添加，此时还不在请求中，按照区分用户的Header需要时从CookieJar中读取
+     */
+    private Request withCookies(Request request) {
+        if (request.header(HEADER_COOKIE) != null || !isVaryCookie())
+            return request;
+
+        OkHttpClient client = RetrofitSDK.getInstance().getHttpClient();
+        if (client == null || client.cookieJar() == CookieJar.NO_COOKIES)
+            return request;
+
+        List<Cookie> cookies = client.cookieJar().loadForRequest(request.url());
+        if (cookies.isEmpty())
+            return request;
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < cookies.size(); i++) {
+            if (i > 0)
+                builder.append("; ");
+            builder.append(cookies.get(i).name()).append('=').append(cookies.get(i).value());
+        }
+        return request.newBuilder()
+                .header(HEADER_COOKIE, builder.toString())
+                .build();
+    }
+
+    private boolean isVaryCookie() {
+        for (String name : mVaryHeaders) {
+            if (HEADER_COOKIE.equalsIgnoreCase(name))
+                return true;
+        }
+        return false;
+    }
+
+    private Response proceedAndStore(Chain chain, Request request, String key) throws IOException {
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        if (body == null || response.code() != 200 || response.cacheControl().noStore())
+            return response;
+
+        long contentLength = body.contentLength();
+        if (contentLength > mMaxEntrySize)
+            return response;
+
+        //超过长度时已读取的内容留在source的缓冲区中，调用方仍然可以完整读取
+        BufferedSource source = body.source();
+        if (source.request(mMaxEntrySize + 1L))
+            return response;
+
+        MediaType contentType = body.contentType();
+        ByteString bytes = source.readByteString();
+        body.close();
+
+        mCache.put(key, new Entry(response, contentType, bytes));
+        return response.newBuilder()
+                .body(ResponseBody.create(bytes, contentType))
+                .build();
+    }
+
+    /**
+     * 复制当前请求在后台刷新缓存，同一个key同时只有一个刷新请求
+     */
+    private void refresh(Chain chain, String key) {
+        if (!mRefreshingKeys.add(key))
+            return;
+
+        Call call = chain.call().clone();
+        mRefreshCalls.add(call);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                LogUtils.debug(TAG, "PostResponseCacheInterceptor>>>refresh failed: %s", e.getMessage());
+                finish(call);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                finish(call);
+            }
+
+            private void finish(Call call) {
+                mRefreshCalls.remove(call);
+                mRefreshingKeys.remove(key);
+            }
+        });
+    }
+
+
+    /** 缓存的请求结果 */
+    private static class Entry {
+
+        final Protocol protocol;
+        final int code;
+        final String message;
+        final Headers headers;
+        final MediaType contentType;
+        final ByteString body;
+        final long sentRequestAtMillis;
+        final long receivedResponseAtMillis;
+        /** 存入缓存的时间，使用开机时间，不受修改系统时间影响 */
+        final long storedAt;
+
+        Entry(Response response, MediaType contentType, ByteString body) {
+            this.protocol = response.protocol();
+            this.code = response.code();
+            this.message = response.message();
+            this.headers = response.headers();
+            this.contentType = contentType;
+            this.body = body;
+            this.sentRequestAtMillis = response.sentRequestAtMillis();
+            this.receivedResponseAtMillis = response.receivedResponseAtMillis();
+            this.storedAt = SystemClock.elapsedRealtime();
+        }
+
+        Response toResponse(Request request, boolean isStale) {
+            Response.Builder builder = new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(body, contentType))
+                    .sentRequestAtMillis(sentRequestAtMillis)
+                    .receivedResponseAtMillis(receivedResponseAtMillis);
+            if (isStale)
+                builder.addHeader("Warning", "110 - \"Response is Stale\"");
+            return builder.build();
+        }
+    }
+}
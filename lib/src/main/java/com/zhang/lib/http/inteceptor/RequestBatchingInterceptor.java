@@ -0,0 +1,296 @@
+package com.zhang.lib.http.inteceptor;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.annotation.Batchable;
+import com.zhang.lib.http.batch.JsonBatchCodec;
+import com.zhang.lib.http.constant.RequestMethod;
+import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.interfaces.IBatchCodec;
+import com.zhang.lib.http.utils.CallCancellation;
+import com.zhang.lib.http.utils.RequestAnnotations;
+import com.zhang.library.utils.LogUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * 批量请求拦截器
+ * <p>
+ * 在时间窗口内发起的{@link Batchable}请求会合并成一个批量请求发出，再把结果拆分给各个请求。
+ * 窗口内的第一个请求负责用单独的Call发出批量请求，这个Call不会因为第一个请求取消而取消，
+ * 所有请求都等待批量请求的结果，批量请求只经过一次拦截器，所以只加密一次。
+ * Header不同的请求、编解码不支持的请求不合并，单独发出。
+ * <p>
+ * 等待结果的异步请求会占用Dispatcher的线程和单个域名的并发数，maxBatchSize不宜超过{@link okhttp3.Dispatcher#getMaxRequestsPerHost()}，
+ * 超过时多出的请求要等前面的请求结束后才会开始。
+ * <p>
+ * 需要拿到最终的请求体再合并，并且在加密之前合并，所以要添加在{@link RequestBodyTransformationInterceptor}之后、
+ * {@link HeaderInterceptor}和{@link RequestEncryptionInterceptor}之前
+ *
+ * @author ZhangXiaoMing 2026-10-18 19:30 周日
+ */
+public class RequestBatchingInterceptor implements Interceptor {
+
+    /** 默认合并窗口，单位：毫秒 */
+    private static final long DEFAULT_WINDOW = 20;
+    /** 默认单个批量请求最多包含的请求数量 */
+    private static final int DEFAULT_MAX_BATCH_SIZE = 20;
+
+    private final HttpUrl mBatchUrl;
+    private final long mWindow;
+    private final int mMaxBatchSize;
+    private final IBatchCodec mCodec;
+
+    private final Object mLock = new Object();
+    /** 正在收集请求的批次 */
+    private Batch mPending;
+
+    /** 发出的批量请求数量 */
+    private final AtomicLong mBatchCount = new AtomicLong();
+    /** 通过批量请求发出的请求数量 */
+    private final AtomicLong mBatchedCallCount = new AtomicLong();
+
+    /**
+     * @param batchUrl 批量接口地址
+     */
+    public RequestBatchingInterceptor(@NonNull String batchUrl) {
+        this(batchUrl, DEFAULT_WINDOW, DEFAULT_MAX_BATCH_SIZE, new JsonBatchCodec());
+    }
+
+    /**
+     * @param batchUrl     批量接口地址
+     * @param window       合并窗口，单位：毫秒
+     * @param maxBatchSize 单个批量请求最多包含的请求数量
+     * @param codec        批量请求编解码
+     */
+    public RequestBatchingInterceptor(@NonNull String batchUrl, long window, int maxBatchSize, @NonNull IBatchCodec codec) {
+        this.mBatchUrl = HttpUrl.get(batchUrl);
+        this.mWindow = Math.max(0, window);
+        this.mMaxBatchSize = Math.max(1, maxBatchSize);
+        this.mCodec = codec;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isBatchable(request))
+            return chain.proceed(request);
+
+        Entry entry = new Entry(request);
+        Batch batch;
+        boolean isLeader;
+        synchronized (mLock) {
+            //批量请求只能带一组Header，与正在收集的批次Header不同的请求单独发出
+            batch = mPending;
+            if (batch != null && !batch.headers.equals(request.headers())) {
+                batch = null;
+                isLeader = false;
+            } else {
+                isLeader = batch == null;
+                if (isLeader)
+                    batch = mPending = new Batch(request.headers());
+
+                batch.entries.add(entry);
+                if (batch.entries.size() >= mMaxBatchSize) {
+                    batch.isClosed = true;
+                    mPending = null;
+                    mLock.notifyAll();
+                }
+            }
+        }
+
+        if (batch == null)
+            return chain.proceed(request);
+
+        if (!isLeader)
+            return entry.await(chain.call());
+
+        awaitWindow(batch);
+        if (batch.entries.size() == 1)
+            return chain.proceed(request);
+
+        proceedBatch(batch.entries);
+        return entry.await(chain.call());
+    }
+
+    /** 发出的批量请求数量 */
+    public long getBatchCount() {
+        return mBatchCount.get();
+    }
+
+    /** 通过批量请求发出的请求数量 */
+    public long getBatchedCallCount() {
+        return mBatchedCallCount.get();
+    }
+
+
+    /** 添加了{@link Batchable}注解，并且请求体可以重复写入的POST请求才可以合并 */
+    private boolean isBatchable(Request request) {
+        if (!RequestMethod.POST.equals(request.method()))
+            return false;
+
+        RequestBody body = request.body();
+        if (body == null || body.isOneShot() || body.isDuplex())
+            return false;
+
+        return RequestAnnotations.get(request, Batchable.class) != null && mCodec.isSupported(request);
+    }
+
+    /** 等待合并窗口结束或者批次已满，之后的请求会进入新的批次 */
+    private void awaitWindow(Batch batch) {
+        synchronized (mLock) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(mWindow);
+            try {
+                while (!batch.isClosed) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0)
+                        break;
+
+                    mLock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            batch.isClosed = true;
+            if (mPending == batch)
+                mPending = null;
+        }
+    }
+
+    /**
+     * 用单独的Call同步发出批量请求，把结果交给批次中的每个请求，失败时所有请求都失败
+     */
+    private void proceedBatch(List<Entry> entries) {
+        LogUtils.info(RetrofitConstant.TAG, "RequestBatchingInterceptor>>>proceedBatch()size = " + entries.size());
+
+        List<Request> requests = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            requests.add(entry.request);
+        }
+
+        List<Response> responses;
+        try {
+            Request batchRequest = requests.get(0).newBuilder()
+                    .url(mBatchUrl)
+                    .post(mCodec.encode(requests))
+                    .tag(Invocation.class, null)
+                    .build();
+
+            //同步请求不占用Dispatcher的并发数，等待结果的异步请求已经占满名额时也能发出
+            Response batchResponse = RetrofitSDK.getInstance().getHttpClient().newCall(batchRequest).execute();
+            try {
+                if (!batchResponse.isSuccessful())
+                    throw new IOException("batch request failed: " + batchResponse.code());
+
+                responses = mCodec.decode(requests, batchResponse);
+            } finally {
+                batchResponse.close();
+            }
+
+            if (responses.size() != entries.size())
+                throw new IOException("batch response size mismatch: " + responses.size() + " != " + entries.size());
+        } catch (IOException e) {
+            failAll(entries, e);
+            return;
+        } catch (RuntimeException e) {
+            failAll(entries, new IOException(e));
+            return;
+        }
+
+        mBatchCount.incrementAndGet();
+        mBatchedCallCount.addAndGet(entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).complete(responses.get(i), null);
+        }
+    }
+
+    private void failAll(List<Entry> entries, IOException e) {
+        for (Entry entry : entries) {
+            entry.complete(null, e);
+        }
+    }
+
+
+    /** 一个合并窗口内的请求 */
+    private static final class Batch {
+
+        /** 第一个请求的Header，只有Header相同的请求才能加入 */
+        final Headers headers;
+        final List<Entry> entries = new ArrayList<>();
+        /** 是否已经停止收集请求，由mLock保护 */
+        boolean isClosed;
+
+        Batch(Headers headers) {
+            this.headers = headers;
+        }
+    }
+
+
+    /** 等待批量结果的请求 */
+    private static final class Entry {
+
+        final Request request;
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        volatile Response response;
+        volatile IOException exception;
+
+        Entry(Request request) {
+            this.request = request;
+        }
+
+        void complete(Response response, IOException exception) {
+            this.response = response;
+            this.exception = exception;
+            latch.countDown();
+        }
+
+        /**
+         * 等待批量请求的结果
+         *
+         * @param call 外层请求，取消时不再等待
+         */
+        Response await(Call call) throws IOException {
+            CallCancellation.register(call, latch::countDown);
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Canceled");
+            } finally {
+                CallCancellation.unregister(call);
+            }
+
+            if (call.isCanceled()) {
+                Response response = this.response;
+                if (response != null)
+                    response.close();
+                throw new IOException("Canceled");
+            }
+
+            if (exception != null)
+                throw new IOException(exception.getMessage(), exception);
+
+            return response;
+        }
+    }
+}
@@ -5,7 +5,7 @@ import android.text.TextUtils;
 import androidx.annotation.NonNull;
 
 import com.zhang.lib.http.RetrofitSDK;
-import com.zhang.lib.http.bean.RequestParamVo;
+import com.zhang.lib.http.body.JsonEnvelopeRequestBody;
 import com.zhang.lib.http.constant.RetrofitConstant;
 import com.zhang.library.utils.LogUtils;
 
@@ -15,7 +15,6 @@ import java.util.Map;
 
 import okhttp3.FormBody;
 import okhttp3.Interceptor;
-import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -75,32 +74,6 @@ public class RequestBodyTransformationInterceptor implements Interceptor {
      * @param body 请求体
      */
     private RequestBody getNewBodyDefault(FormBody body) {
-        RequestParamVo params = RequestParamVo.obtain();
-
-        Map<String, Object> map = new HashMap<>();
-        for (int index = 0; index < body.size(); index++) {
-            String key = body.name(index);
-            String value = body.value(index);
-
-            if (TextUtils.isEmpty(key)
-                    || TextUtils.isEmpty(value))
-                continue;
-
-            if (key.equals("page") || key.equals("pageSize")) {
-                if (key.equals("page"))
-                    params.setPage(Integer.parseInt(value));
-                else
-                    params.setPageSize(Integer.parseInt(value));
-
-                continue;
-            }
-
-            map.put(key, value);
-        }
-
-        params.setData(map);
-
-        MediaType mediaType = MediaType.parse("application/json; charset=utf-8");
-        return FormBody.create(params.toJsonString(), mediaType);
+        return new JsonEnvelopeRequestBody(body);
     }
 }
@@ -0,0 +1,128 @@
+package com.zhang.lib.http.inteceptor;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.annotation.CompressRequest;
+import com.zhang.lib.http.compress.GzipCompressor;
+import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.interfaces.ICompressor;
+import com.zhang.lib.http.utils.RequestAnnotations;
+import com.zhang.library.utils.LogUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * 请求体压缩拦截器
+ * <p>
+ * 只压缩添加了{@link CompressRequest}注解的接口，压缩后没有变小时发送原始请求体。
+ * 密文几乎无法压缩，所以要添加在{@link RequestEncryptionInterceptor}之前。
+ * 压缩后的请求体不是文本，String加密器无法处理，只设置了String加密器时不压缩
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:05 周日
+ */
+public class RequestCompressionInterceptor implements Interceptor {
+
+    private static final String TAG = "RequestCompressionInterceptor";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private final List<ICompressor> mCompressorList;
+
+    /** 压缩前的字节数 */
+    private final AtomicLong mRawBytes = new AtomicLong();
+    /** 压缩后的字节数 */
+    private final AtomicLong mCompressedBytes = new AtomicLong();
+
+    public RequestCompressionInterceptor() {
+        this(new GzipCompressor());
+    }
+
+    /**
+     * @param compressors 支持的压缩方式，zstd等其他压缩方式通过{@link ICompressor}添加
+     */
+    public RequestCompressionInterceptor(@NonNull ICompressor... compressors) {
+        this.mCompressorList = Arrays.asList(compressors);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body == null || body.isOneShot() || body.isDuplex()
+                || request.header(HEADER_CONTENT_ENCODING) != null)
+            return chain.proceed(request);
+
+        CompressRequest annotation = RequestAnnotations.get(request, CompressRequest.class);
+        if (annotation == null)
+            return chain.proceed(request);
+
+        RetrofitSDK sdk = RetrofitSDK.getInstance();
+        if (sdk.hasEncryptor() && !sdk.hasStreamEncryptor())
+            return chain.proceed(request);
+
+        ICompressor compressor = findCompressor(annotation.encoding());
+        long contentLength = body.contentLength();
+        if (compressor == null || (contentLength >= 0 && contentLength < annotation.minSize()))
+            return chain.proceed(request);
+
+        LogUtils.info(RetrofitConstant.TAG, "RequestCompressionInterceptor>>>intercept()");
+
+        Buffer raw = new Buffer();
+        body.writeTo(raw);
+        if (raw.size() < annotation.minSize())
+            return chain.proceed(request);
+
+        long rawSize = raw.size();
+        Buffer compressed = new Buffer();
+        BufferedSink sink = Okio.buffer(compressor.compress(compressed));
+        sink.writeAll(raw);
+        sink.close();
+
+        mRawBytes.addAndGet(rawSize);
+        if (compressed.size() >= rawSize) {
+            mCompressedBytes.addAndGet(rawSize);
+            return chain.proceed(request);
+        }
+
+        mCompressedBytes.addAndGet(compressed.size());
+        LogUtils.debug(TAG, "RequestCompressionInterceptor>>>%s %d -> %d", compressor.encoding(), rawSize, compressed.size());
+
+        return chain.proceed(request.newBuilder()
+                .header(HEADER_CONTENT_ENCODING, compressor.encoding())
+                .removeHeader("Content-Length")
+                .method(request.method(), RequestBody.create(compressed.readByteString(), body.contentType()))
+                .build());
+    }
+
+    /** 压缩前的字节数 */
+    public long getRawBytes() {
+        return mRawBytes.get();
+    }
+
+    /** 实际发送的字节数，没有压缩的请求按照原始大小计算 */
+    public long getCompressedBytes() {
+        return mCompressedBytes.get();
+    }
+
+
+    private ICompressor findCompressor(String encoding) {
+        for (ICompressor compressor : mCompressorList) {
+            if (compressor.encoding().equalsIgnoreCase(encoding))
+                return compressor;
+        }
+
+        return null;
+    }
+}
@@ -29,7 +29,8 @@ public class RequestEncryptionInterceptor implements Interceptor {
     @NonNull
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
-        if (!RetrofitSDK.getInstance().hasEncryptor())
+        RetrofitSDK sdk = RetrofitSDK.getInstance();
+        if (!sdk.hasEncryptor() && !sdk.hasStreamEncryptor())
             return chain.proceed(chain.request());
 
         LogUtils.info(RetrofitConstant.TAG, "RequestEncryptionInterceptor>>>intercept()");
@@ -40,12 +41,19 @@ public class RequestEncryptionInterceptor implements Interceptor {
         if (body == null)
             return chain.proceed(request);
 
+        String url = request.url().toString().trim();
+        if (sdk.hasStreamEncryptor())
+            return chain.proceed(encryptStream(request, url, body));
+
+        //二进制数据格式不能转换成String加密，需要通过流式加密处理，不能以明文发出
+        if (sdk.isWireCodecType(body.contentType()))
+            throw new IOException("Binary body requires IStreamEncryptor: " + url);
+
         Buffer bufferedSink = new Buffer();
         body.writeTo(bufferedSink);
         String params = bufferedSink.readUtf8();
 
-        String url = request.url().toString().trim();
-        String result = RetrofitSDK.getInstance().encrypt(url, params);
+        String result = sdk.encrypt(url, params);
         LogUtils.debug(TAG, "RequestEncryptionInterceptor>>>加密前：%s ， 加密后：%s", params, result);
 
         if (TextUtils.isEmpty(result) || TextUtils.equals(result, params))
@@ -56,4 +64,20 @@ public class RequestEncryptionInterceptor implements Interceptor {
                 .method(request.method(), newBody)
                 .build());
     }
+
+    /**
+     * 流式加密，OkHttp写入请求的时候才进行加密，不再把整个请求参数读取到内存
+     *
+     * @param request 请求
+     * @param url     请求链接
+     * @param body    原始请求体
+     */
+    private Request encryptStream(Request request, String url, RequestBody body) {
+        LogUtils.debug(TAG, "RequestEncryptionInterceptor>>>stream encrypt：%s", url);
+
+        return request.newBuilder()
+                .removeHeader("Content-Length")
+                .method(request.method(), RetrofitSDK.getInstance().encrypt(url, body))
+                .build();
+    }
 }
@@ -0,0 +1,391 @@
+package com.zhang.lib.http.inteceptor;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.utils.CallCancellation;
+import com.zhang.lib.http.utils.RequestAnnotations;
+import com.zhang.library.utils.LogUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * 对冲请求拦截器
+ * <p>
+ * 幂等请求在指定分位的耗时内还没有返回时，再发出一个相同的请求，使用先返回的结果并取消另一个请求。
+ * 额外的请求数量受预算限制，不会超过正常请求的一定比例。
+ * <p>
+ * 两个请求都通过不带应用拦截器的OkHttpClient发出，使用外层请求的超时设置，外层请求取消时同时取消这两个请求。
+ * 对冲请求使用单独的Dispatcher，外层的异步请求占满并发数时也能立即发出，
+ * 所以必须是最后一个应用拦截器，需要通过{@link RetrofitSDK.BuildParam#setHedgingInterceptor(RequestHedgingInterceptor)}设置
+ *
+ * @author ZhangXiaoMing 2026-10-18 17:40 周日
+ */
+public class RequestHedgingInterceptor implements Interceptor {
+
+    /** 默认发起对冲请求的耗时分位 */
+    private static final float DEFAULT_PERCENTILE = 0.95F;
+    /** 默认最短对冲延迟，单位：毫秒 */
+    private static final long DEFAULT_MIN_DELAY = 50;
+    /** 耗时样本不足时的对冲延迟，单位：毫秒 */
+    private static final long DEFAULT_INITIAL_DELAY = 1000;
+    /** 默认对冲请求占正常请求的比例 */
+    private static final float DEFAULT_BUDGET_RATIO = 0.05F;
+    /** 默认允许的连续对冲请求数量 */
+    private static final int DEFAULT_BUDGET_MAX_TOKENS = 5;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RetrofitHedging");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LatencyWindow mLatencyWindow;
+    private final TrafficBudget mBudget;
+
+    /** 不带应用拦截器、使用单独Dispatcher的OkHttpClient */
+    private volatile OkHttpClient mHedgeClient;
+
+    /** 发出的对冲请求数量 */
+    private final AtomicLong mHedgeCount = new AtomicLong();
+    /** 对冲请求先返回的次数 */
+    private final AtomicLong mHedgeWinCount = new AtomicLong();
+    /** 因为预算不足没有发出对冲请求的次数 */
+    private final AtomicLong mBudgetExhaustedCount = new AtomicLong();
+
+    public RequestHedgingInterceptor() {
+        this(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY, DEFAULT_BUDGET_RATIO, DEFAULT_BUDGET_MAX_TOKENS);
+    }
+
+    /**
+     * @param percentile  发起对冲请求的耗时分位，例如0.95
+     * @param minDelay    最短对冲延迟，单位：毫秒
+     * @param budgetRatio 对冲请求占正常请求的比例
+     * @param maxTokens   允许的连续对冲请求数量
+     */
+    public RequestHedgingInterceptor(float percentile, long minDelay, float budgetRatio, int maxTokens) {
+        this.mLatencyWindow = new LatencyWindow(percentile, Math.max(0, minDelay));
+        this.mBudget = new TrafficBudget(budgetRatio, maxTokens);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isHedgeable(request))
+            return chain.proceed(request);
+
+        LogUtils.info(RetrofitConstant.TAG, "RequestHedgingInterceptor>>>intercept()");
+
+        mBudget.deposit();
+
+        OkHttpClient client = withChainTimeouts(getHedgeClient(), chain);
+        HedgeState state = new HedgeState(newCall(client, chain, request));
+
+        //外层请求取消时取消实际发出的两个请求，并唤醒等待的线程
+        Call outer = chain.call();
+        CallCancellation.register(outer, state::cancelAll);
+        try {
+            return hedge(state, client, chain, request);
+        } finally {
+            CallCancellation.unregister(outer);
+        }
+    }
+
+    /** 发出的对冲请求数量 */
+    public long getHedgeCount() {
+        return mHedgeCount.get();
+    }
+
+    /** 对冲请求先返回的次数 */
+    public long getHedgeWinCount() {
+        return mHedgeWinCount.get();
+    }
+
+    /** 因为预算不足没有发出对冲请求的次数 */
+    public long getBudgetExhaustedCount() {
+        return mBudgetExhaustedCount.get();
+    }
+
+    /** 当前的对冲延迟，单位：毫秒 */
+    public long getHedgeDelay() {
+        return mLatencyWindow.getDelay();
+    }
+
+
+    private Response hedge(HedgeState state, OkHttpClient client, Chain chain, Request request) throws IOException {
+        ScheduledFuture<?> future = SCHEDULER.schedule(() -> launchHedge(state, client, chain, request),
+                mLatencyWindow.getDelay(), TimeUnit.MILLISECONDS);
+
+        Response response;
+        try {
+            response = state.primary.execute();
+        } catch (IOException e) {
+            //对冲请求还没有发出，直接返回异常
+            if (future.cancel(false))
+                throw e;
+
+            Response hedge = state.awaitHedge(chain.call(), remainingNanos(state, chain));
+            if (hedge == null)
+                throw e;
+
+            return hedge;
+        }
+
+        if (state.complete()) {
+            future.cancel(false);
+            state.cancelHedge();
+            mLatencyWindow.record(state.elapsedMillis());
+            return response;
+        }
+
+        //对冲请求先返回，耗时已经在对冲请求返回时记录
+        response.close();
+        Response hedge = state.awaitHedge(chain.call(), remainingNanos(state, chain));
+        if (hedge == null)
+            throw new IOException("hedged response lost: " + request.url());
+
+        return hedge;
+    }
+
+    /** 使用外层请求的连接、读写超时，调用链上可能修改过 */
+    private static OkHttpClient withChainTimeouts(OkHttpClient client, Chain chain) {
+        if (client.connectTimeoutMillis() == chain.connectTimeoutMillis()
+                && client.readTimeoutMillis() == chain.readTimeoutMillis()
+                && client.writeTimeoutMillis() == chain.writeTimeoutMillis())
+            return client;
+
+        return client.newBuilder()
+                .connectTimeout(chain.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(chain.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(chain.writeTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /** 创建请求，整个请求的超时与外层请求相同 */
+    private static Call newCall(OkHttpClient client, Chain chain, Request request) {
+        Call call = client.newCall(request);
+        call.timeout().timeout(chain.call().timeout().timeoutNanos(), TimeUnit.NANOSECONDS);
+        return call;
+    }
+
+    /**
+     * 外层请求剩余的超时时间
+     *
+     * @return 单位：纳秒，外层请求没有设置超时时返回0
+     */
+    private static long remainingNanos(HedgeState state, Chain chain) {
+        long timeout = chain.call().timeout().timeoutNanos();
+        if (timeout == 0)
+            return 0;
+
+        return Math.max(1, timeout - (System.nanoTime() - state.start));
+    }
+
+    /** 幂等且请求体可以重复写入的请求才可以对冲 */
+    private boolean isHedgeable(Request request) {
+        RequestBody body = request.body();
+        if (body != null && (body.isOneShot() || body.isDuplex()))
+            return false;
+
+        return RequestAnnotations.isIdempotent(request);
+    }
+
+    private OkHttpClient getHedgeClient() {
+        OkHttpClient client = mHedgeClient;
+        if (client == null) {
+            OkHttpClient.Builder builder = RetrofitSDK.getInstance().getHttpClient().newBuilder();
+            builder.interceptors().clear();
+            //外层的异步请求占用了共用Dispatcher的并发数，并且在等待对冲请求，共用时对冲请求可能永远无法开始
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequestsPerHost(dispatcher.getMaxRequests());
+            builder.dispatcher(dispatcher);
+            client = builder.build();
+            mHedgeClient = client;
+        }
+
+        return client;
+    }
+
+    private void launchHedge(HedgeState state, OkHttpClient client, Chain chain, Request request) {
+        if (state.isDone()) {
+            state.latch.countDown();
+            return;
+        }
+
+        if (!mBudget.tryAcquire()) {
+            mBudgetExhaustedCount.incrementAndGet();
+            state.latch.countDown();
+            return;
+        }
+
+        mHedgeCount.incrementAndGet();
+        Call hedge = newCall(client, chain, request);
+        state.hedge = hedge;
+        if (state.isDone()) {
+            hedge.cancel();
+            state.latch.countDown();
+            return;
+        }
+
+        hedge.enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                //只有成功的结果才可以替代第一个请求
+                if (response.isSuccessful() && state.complete()) {
+                    mHedgeWinCount.incrementAndGet();
+                    //第一个请求被取消，它的耗时至少是当前的耗时，同样需要记录，否则分位会越来越低
+                    mLatencyWindow.record(state.elapsedMillis());
+                    state.hedgeResponse = response;
+                    state.primary.cancel();
+                } else {
+                    response.close();
+                }
+
+                state.latch.countDown();
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                state.latch.countDown();
+            }
+        });
+    }
+
+
+    /** 一次对冲请求的状态 */
+    private static final class HedgeState {
+
+        final Call primary;
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicBoolean done = new AtomicBoolean();
+        final long start = System.nanoTime();
+
+        volatile Call hedge;
+        volatile Response hedgeResponse;
+
+        HedgeState(Call primary) {
+            this.primary = primary;
+        }
+
+        boolean isDone() {
+            return done.get();
+        }
+
+        /** 标记已经有请求返回，只有第一个返回的请求会成功 */
+        boolean complete() {
+            return done.compareAndSet(false, true);
+        }
+
+        long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+
+        /** 外层请求取消时调用 */
+        void cancelAll() {
+            done.set(true);
+            primary.cancel();
+            cancelHedge();
+            latch.countDown();
+        }
+
+        void cancelHedge() {
+            Call call = hedge;
+            if (call != null)
+                call.cancel();
+        }
+
+        /**
+         * 等待对冲请求结束
+         *
+         * @param call         外层请求，取消时会唤醒等待
+         * @param timeoutNanos 最长等待时间，单位：纳秒，0表示外层请求没有超时，一直等待到对冲请求结束
+         *
+         * @return 对冲请求先返回时为对冲请求的结果，否则为null
+         */
+        Response awaitHedge(Call call, long timeoutNanos) throws IOException {
+            try {
+                if (timeoutNanos == 0) {
+                    latch.await();
+                } else if (!latch.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    done.set(true);
+                    cancelHedge();
+                    throw new InterruptedIOException("timeout");
+                }
+            } catch (InterruptedException e) {
+                cancelHedge();
+                Thread.currentThread().interrupt();
+                throw new IOException("Canceled", e);
+            }
+
+            if (call.isCanceled()) {
+                Response response = hedgeResponse;
+                if (response != null)
+                    response.close();
+                throw new IOException("Canceled");
+            }
+
+            return hedgeResponse;
+        }
+    }
+
+
+    /** 最近请求耗时的滑动窗口，用于计算对冲延迟 */
+    private static final class LatencyWindow {
+
+        private static final int SAMPLE_SIZE = 128;
+        /** 每记录N个样本重新计算一次分位 */
+        private static final int RECOMPUTE_INTERVAL = 16;
+
+        private final float mPercentile;
+        private final long mMinDelay;
+        private final long[] mSamples = new long[SAMPLE_SIZE];
+
+        private int mIndex;
+        private int mCount;
+        private volatile long mDelay = DEFAULT_INITIAL_DELAY;
+
+        LatencyWindow(float percentile, long minDelay) {
+            this.mPercentile = Math.min(1F, Math.max(0F, percentile));
+            this.mMinDelay = minDelay;
+        }
+
+        long getDelay() {
+            return mDelay;
+        }
+
+        synchronized void record(long latency) {
+            mSamples[mIndex] = latency;
+            mIndex = (mIndex + 1) % SAMPLE_SIZE;
+            mCount++;
+
+            if (mCount % RECOMPUTE_INTERVAL != 0)
+                return;
+
+            int size = Math.min(mCount, SAMPLE_SIZE);
+            long[] sorted = Arrays.copyOf(mSamples, size);
+            Arrays.sort(sorted);
+            int position = Math.min(size - 1, (int) Math.ceil(mPercentile * size) - 1);
+            mDelay = Math.max(mMinDelay, sorted[Math.max(0, position)]);
+        }
+    }
+}
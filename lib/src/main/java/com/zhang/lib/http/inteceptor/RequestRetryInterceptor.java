@@ -4,26 +4,115 @@ import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 
 import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.utils.CallCancellation;
+import com.zhang.lib.http.utils.RequestAnnotations;
 import com.zhang.library.utils.LogUtils;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.security.cert.CertificateException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+import okhttp3.Call;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 
 /**
  * 请求异常的时候发起重试
+ * <p>
+ * 1. 只重试幂等的请求，POST接口需要添加{@link com.zhang.lib.http.annotation.Idempotent}注解，
+ * 或者调用{@link #setRetryNonIdempotent(boolean)}；<br>
+ * 2. 重试间隔使用带抖动的指数退避（decorrelated jitter），服务器返回429/503时优先使用Retry-After；<br>
+ * 3. 每个域名有单独的重试预算，重试数量不会超过正常请求的一定比例，避免服务器故障时重试放大流量；<br>
+ * 4. 等待重试时请求被取消会立即结束，需要OkHttpClient的EventListener经过{@link CallCancellation#wrap}包装，RetrofitSDK默认已包装
  *
  * @author ZhangXiaoMing 2023-09-20 15:07 周三
  */
 public class RequestRetryInterceptor implements Interceptor {
 
+    /** 默认重试基础间隔，单位：毫秒 */
+    private static final long DEFAULT_BASE_DELAY = 100;
+    /** 默认重试最大间隔，单位：毫秒 */
+    private static final long DEFAULT_MAX_DELAY = 5000;
+    /** 默认重试数量占正常请求的比例 */
+    private static final float DEFAULT_BUDGET_RATIO = 0.2F;
+    /** 默认允许的连续重试数量 */
+    private static final int DEFAULT_BUDGET_MAX_TOKENS = 10;
 
     private final int mMaxRetryCount;
+    /** 重试基础间隔，单位：毫秒 */
+    private final long mBaseDelay;
+    /** 重试最大间隔，单位：毫秒 */
+    private final long mMaxDelay;
+
+    /** 重试数量占正常请求的比例 */
+    private volatile float mBudgetRatio = DEFAULT_BUDGET_RATIO;
+    /** 允许的连续重试数量 */
+    private volatile int mBudgetMaxTokens = DEFAULT_BUDGET_MAX_TOKENS;
+    /** 是否重试非幂等的请求 */
+    private volatile boolean isRetryNonIdempotent;
+
+    /** 每个域名的重试预算 */
+    private final ConcurrentHashMap<String, TrafficBudget> mBudgetMap = new ConcurrentHashMap<>();
+
+    /** 请求次数（包含重试） */
+    private final AtomicLong mAttemptCount = new AtomicLong();
+    /** 重试次数 */
+    private final AtomicLong mRetryCount = new AtomicLong();
+    /** 放弃重试次数 */
+    private final AtomicLong mGiveUpCount = new AtomicLong();
+    /** 因为重试预算不足放弃重试的次数 */
+    private final AtomicLong mBudgetExhaustedCount = new AtomicLong();
 
+    /**
+     * @param maxRetryCount 最多请求次数（包含第一次请求）
+     */
     public RequestRetryInterceptor(@IntRange(from = 1) int maxRetryCount) {
+        this(maxRetryCount, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * @param maxRetryCount 最多请求次数（包含第一次请求）
+     * @param baseDelay     重试基础间隔，单位：毫秒
+     * @param maxDelay      重试最大间隔，单位：毫秒
+     */
+    public RequestRetryInterceptor(@IntRange(from = 1) int maxRetryCount, long baseDelay, long maxDelay) {
         this.mMaxRetryCount = Math.max(1, maxRetryCount);
+        this.mBaseDelay = Math.max(0, baseDelay);
+        this.mMaxDelay = Math.max(mBaseDelay, maxDelay);
+    }
+
+    /**
+     * 设置每个域名的重试预算
+     *
+     * @param ratio     重试数量占正常请求的比例
+     * @param maxTokens 允许的连续重试数量
+     */
+    public RequestRetryInterceptor setRetryBudget(float ratio, int maxTokens) {
+        this.mBudgetRatio = ratio;
+        this.mBudgetMaxTokens = maxTokens;
+        mBudgetMap.clear();
+        return this;
+    }
+
+    /**
+     * 设置是否重试非幂等的请求
+     *
+     * @param retryNonIdempotent 是否重试
+     */
+    public RequestRetryInterceptor setRetryNonIdempotent(boolean retryNonIdempotent) {
+        isRetryNonIdempotent = retryNonIdempotent;
+        return this;
     }
 
     @NonNull
@@ -31,25 +120,161 @@ public class RequestRetryInterceptor implements Interceptor {
     public Response intercept(Chain chain) throws IOException {
         Request request = chain.request();
 
-        Response response = null;
-        Exception exception = null;
+        TrafficBudget budget = getBudget(request.url().host());
+        budget.deposit();
+
+        boolean retryable = isRetryNonIdempotent || RequestAnnotations.isIdempotent(request);
+        long delay = mBaseDelay;
         int count = 0;
-        while (count < mMaxRetryCount) {
+        while (true) {
+            count++;
+            mAttemptCount.incrementAndGet();
+
+            Response response = null;
+            Exception exception = null;
             try {
                 response = chain.proceed(request);
-                break;
             } catch (Exception e) {
-                count++;
                 exception = e;
             }
+
+            long retryAfter = -1;
+            if (response != null) {
+                if (!isRetryableResponse(response))
+                    return response;
+
+                retryAfter = getRetryAfter(response);
+            }
+
+            boolean giveUp = !retryable
+                    || count >= mMaxRetryCount
+                    || chain.call().isCanceled()
+                    || (exception != null && !isRetryableException(exception))
+                    || retryAfter > mMaxDelay;
+            if (!giveUp && !budget.tryAcquire()) {
+                giveUp = true;
+                mBudgetExhaustedCount.incrementAndGet();
+            }
+
+            if (giveUp) {
+                mGiveUpCount.incrementAndGet();
+                LogUtils.debug(RetrofitConstant.TAG, "RequestRetryInterceptor>>>%s请求1次，重试%d次，请求异常：%s",
+                        request.url().toString(), count - 1, exception == null ? response.code() : exception);
+
+                if (response != null)
+                    return response;
+                if (exception instanceof IOException)
+                    throw (IOException) exception;
+
+                throw new IOException(request.url() + "请求异常" + exception, exception);
+            }
+
+            delay = Math.min(mMaxDelay, randomBetween(mBaseDelay, delay * 3));
+            long sleep = retryAfter >= 0 ? retryAfter : delay;
+
+            if (response != null)
+                response.close();
+
+            awaitBackoff(chain.call(), sleep);
+            mRetryCount.incrementAndGet();
+        }
+    }
+
+    /** 请求次数（包含重试） */
+    public long getAttemptCount() {
+        return mAttemptCount.get();
+    }
+
+    /** 重试次数 */
+    public long getRetryCount() {
+        return mRetryCount.get();
+    }
+
+    /** 放弃重试次数 */
+    public long getGiveUpCount() {
+        return mGiveUpCount.get();
+    }
+
+    /** 因为重试预算不足放弃重试的次数 */
+    public long getBudgetExhaustedCount() {
+        return mBudgetExhaustedCount.get();
+    }
+
+
+    /**
+     * 等待重试间隔，外层请求取消时立即结束
+     *
+     * @param call   外层请求
+     * @param millis 等待时间，单位：毫秒
+     */
+    private void awaitBackoff(Call call, long millis) throws IOException {
+        CountDownLatch canceled = new CountDownLatch(1);
+        CallCancellation.register(call, canceled::countDown);
+        try {
+            canceled.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("retry interrupted");
+        } finally {
+            CallCancellation.unregister(call);
+        }
+
+        if (call.isCanceled())
+            throw new IOException("Canceled");
+    }
+
+    private TrafficBudget getBudget(String host) {
+        TrafficBudget budget = mBudgetMap.get(host);
+        if (budget == null) {
+            budget = new TrafficBudget(mBudgetRatio, mBudgetMaxTokens);
+            TrafficBudget exist = mBudgetMap.putIfAbsent(host, budget);
+            if (exist != null)
+                budget = exist;
         }
 
-        LogUtils.debug(RetrofitConstant.TAG, "RequestRetryInterceptor>>>%s请求1次，重试%d次，请求异常：%s",
-                request.url().toString(), count, exception);
+        return budget;
+    }
+
+    /** 服务器限流或者暂时不可用 */
+    private boolean isRetryableResponse(Response response) {
+        return response.code() == 429 || response.code() == 503;
+    }
+
+    /** 重试也不会成功的异常不再重试 */
+    private boolean isRetryableException(Exception e) {
+        if (e instanceof ProtocolException
+                || e instanceof SSLPeerUnverifiedException)
+            return false;
+
+        return !(e instanceof SSLHandshakeException && e.getCause() instanceof CertificateException);
+    }
+
+    /**
+     * 解析Retry-After，支持秒数与HTTP日期两种格式
+     *
+     * @return 需要等待的时间，单位：毫秒，没有时返回-1
+     */
+    private long getRetryAfter(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null)
+            return -1;
+
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException ignored) {
+        }
+
+        Date date = response.headers().getDate("Retry-After");
+        if (date == null)
+            return -1;
+
+        return Math.max(0, date.getTime() - System.currentTimeMillis());
+    }
 
-        if (response == null)
-            throw new IOException(request.url() + "请求异常" + (exception == null ? "" : exception.toString()));
+    private long randomBetween(long min, long max) {
+        if (max <= min)
+            return min;
 
-        return response;
+        return ThreadLocalRandom.current().nextLong(min, max);
     }
 }
@@ -0,0 +1,88 @@
+package com.zhang.lib.http.inteceptor;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.ContentEncoding;
+import com.zhang.lib.http.interfaces.IDecompressor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.http.HttpHeaders;
+import okio.Okio;
+
+/**
+ * 请求结果解压拦截器，支持br、zstd等OkHttp不能自动解压的格式
+ * <p>
+ * 需要作为网络拦截器添加：OkHttp只在请求没有Accept-Encoding时自动处理gzip，
+ * 网络拦截器在这之后才修改Accept-Encoding，所以gzip仍然由OkHttp解压
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:10 周日
+ */
+public class ResponseDecompressionInterceptor implements Interceptor {
+
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private final List<IDecompressor> mDecompressorList;
+    /** 支持的压缩方式，按照添加顺序优先 */
+    private final String mAcceptEncoding;
+
+    public ResponseDecompressionInterceptor(@NonNull List<IDecompressor> decompressorList) {
+        this.mDecompressorList = new ArrayList<>(decompressorList);
+
+        StringBuilder builder = new StringBuilder();
+        for (IDecompressor decompressor : mDecompressorList) {
+            builder.append(decompressor.encoding()).append(", ");
+        }
+        this.mAcceptEncoding = builder.append(ContentEncoding.GZIP).toString();
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        //OkHttp没有添加gzip说明请求自己设置了Accept-Encoding或者是Range请求，不处理
+        if (!ContentEncoding.GZIP.equals(request.header(HEADER_ACCEPT_ENCODING)))
+            return chain.proceed(request);
+
+        Response response = chain.proceed(request.newBuilder()
+                .header(HEADER_ACCEPT_ENCODING, mAcceptEncoding)
+                .build());
+
+        String encoding = response.header(HEADER_CONTENT_ENCODING);
+        ResponseBody body = response.body();
+        if (encoding == null || body == null)
+            return response;
+        //HEAD、204、304等没有内容的结果不解压，空内容会导致部分解压流创建时就失败
+        if (!HttpHeaders.promisesBody(response))
+            return response;
+
+        IDecompressor decompressor = findDecompressor(encoding);
+        if (decompressor == null)
+            return response;
+
+        ResponseBody newBody = ResponseBody.create(Okio.buffer(decompressor.decompress(body.source())),
+                body.contentType(), -1L);
+        return response.newBuilder()
+                .removeHeader(HEADER_CONTENT_ENCODING)
+                .removeHeader("Content-Length")
+                .body(newBody)
+                .build();
+    }
+
+
+    private IDecompressor findDecompressor(String encoding) {
+        for (IDecompressor decompressor : mDecompressorList) {
+            if (decompressor.encoding().equalsIgnoreCase(encoding))
+                return decompressor;
+        }
+
+        return null;
+    }
+}
@@ -5,7 +5,9 @@ import android.text.TextUtils;
 import androidx.annotation.NonNull;
 
 import com.zhang.lib.http.RetrofitSDK;
+import com.zhang.lib.http.cache.DecryptedContentCache;
 import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.factory.PipelineCallAdapterFactory;
 import com.zhang.library.utils.LogUtils;
 
 import java.io.IOException;
@@ -14,6 +16,7 @@ import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.ByteString;
 
 /**
  * 请求参数AES解密拦截器
@@ -24,10 +27,14 @@ public class ResponseDecryptInterceptor implements Interceptor {
 
     private static final String TAG = "ResponseDecryptInterceptor";
 
+    /** 延迟解密的标记，请求结果还是密文，由{@link PipelineCallAdapterFactory}在计算线程中解密 */
+    public static final String HEADER_DEFERRED_DECRYPT = "X-Retrofit-Deferred-Decrypt";
+
     @NonNull
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
-        if (!RetrofitSDK.getInstance().hasDecryptor())
+        RetrofitSDK sdk = RetrofitSDK.getInstance();
+        if (!sdk.hasDecryptor() && !sdk.hasStreamDecryptor())
             return chain.proceed(chain.request());
 
         LogUtils.info(RetrofitConstant.TAG, "ResponseDecryptInterceptor>>>intercept()");
@@ -41,20 +48,108 @@ public class ResponseDecryptInterceptor implements Interceptor {
         if (body == null)
             return response;
 
+        //OkHttp缓存中是密文，命中缓存或者304时优先使用已经解密的内容
+        ByteString content = getDecryptedCache(response);
+        if (content != null) {
+            LogUtils.debug(TAG, "intercept()>>>decrypted cache hit:" + request.url());
+            body.close();
+            return response.newBuilder()
+                    .removeHeader("Content-Length")
+                    .body(ResponseBody.create(content, body.contentType()))
+                    .build();
+        }
+
+        //计算线程池模式下网络线程只读取数据，解密和解析一起在计算线程中进行
+        if (sdk.getComputePipeline() != null && PipelineCallAdapterFactory.isPipelined(request)) {
+            LogUtils.debug(TAG, "intercept()>>>deferred decrypt:" + request.url());
+            return response.newBuilder()
+                    .header(HEADER_DEFERRED_DECRYPT, "1")
+                    .build();
+        }
+
+        ResponseBody newBody = decrypt(response, body);
+        if (newBody == body)
+            return response;
+
+        return response.newBuilder()
+                .removeHeader("Content-Length")
+                .body(newBody)
+                .build();
+    }
+
+    /**
+     * 解密请求结果
+     *
+     * @param response 请求结果，用于获取请求链接和缓存校验值
+     * @param body     原始请求结果
+     *
+     * @return 不需要解密时返回原始请求结果
+     */
+    @NonNull
+    public static ResponseBody decrypt(@NonNull Response response, @NonNull ResponseBody body) throws IOException {
+        RetrofitSDK sdk = RetrofitSDK.getInstance();
+        Request request = response.request();
         String url = request.url().toString().trim();
+
+        DecryptedContentCache cache = sdk.getDecryptedContentCache();
+        //OkHttp不会缓存的请求结果（no-store等）不保存明文，下次也无法命中
+        String validator = cache == null || !"GET".equals(request.method()) || !DecryptedContentCache.isCacheable(response)
+                ? null : DecryptedContentCache.validator(response);
+
+        if (sdk.hasStreamDecryptor()) {
+            ResponseBody decrypted = decryptStream(url, body);
+            return validator == null ? decrypted : cache.tee(decrypted, url, validator);
+        }
+
+        if (!sdk.hasDecryptor())
+            return body;
+
+        //二进制数据格式不能转换成String解密，需要通过流式解密处理，不能把密文交给解析器
+        if (sdk.isWireCodecType(body.contentType())) {
+            body.close();
+            throw new IOException("Binary body requires IStreamDecryptor: " + url);
+        }
+
         String originResponse = body.string();
 
-        String result = RetrofitSDK.getInstance().decrypt(url, originResponse);
+        String result = sdk.decrypt(url, originResponse);
         if (TextUtils.isEmpty(result)
             /*|| TextUtils.equals(result, originResponse)*/)
-            return response;
+            return ResponseBody.create(originResponse, body.contentType());
 
         LogUtils.debug(TAG, "intercept()>>>before decrypt:" + originResponse);
         LogUtils.debug(TAG, "intercept()>>>after decrypt:" + result);
 
-        ResponseBody newBody = ResponseBody.create(result, body.contentType());
-        return response.newBuilder()
-                .body(newBody)
-                .build();
+        if (validator != null)
+            cache.put(url, validator, ByteString.encodeUtf8(result));
+
+        return ResponseBody.create(result, body.contentType());
+    }
+
+    /**
+     * 请求结果来自OkHttp缓存时，读取已经解密的内容
+     *
+     * @param response 请求结果
+     */
+    private static ByteString getDecryptedCache(Response response) {
+        DecryptedContentCache cache = RetrofitSDK.getInstance().getDecryptedContentCache();
+        Request request = response.request();
+        if (cache == null || !"GET".equals(request.method()) || !DecryptedContentCache.isFromCache(response))
+            return null;
+
+        String validator = DecryptedContentCache.validator(response);
+        return validator == null ? null : cache.get(request.url().toString().trim(), validator);
+    }
+
+    /**
+     * 流式解密，解析器读取数据的同时分段解密，不再把整个请求结果读取到内存
+     *
+     * @param url  请求链接
+     * @param body 原始请求体
+     */
+    private static ResponseBody decryptStream(String url, ResponseBody body) {
+        LogUtils.debug(TAG, "intercept()>>>stream decrypt:" + url);
+
+        return RetrofitSDK.getInstance().decrypt(url, body);
     }
 }
@@ -1,16 +1,13 @@
 package com.zhang.lib.http.inteceptor;
 
-import android.text.TextUtils;
-
 import androidx.annotation.NonNull;
 
 import com.zhang.lib.http.RetrofitSDK;
 import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.log.HttpLogEntry;
+import com.zhang.lib.http.log.HttpLogWriter;
 import com.zhang.library.utils.LogUtils;
 
-import org.json.JSONException;
-import org.json.JSONTokener;
-
 import java.io.IOException;
 
 import okhttp3.Interceptor;
@@ -19,10 +16,16 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import okio.Buffer;
-import okio.BufferedSource;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
 
 /**
  * Retrofit日志打印拦截器
+ * <p>
+ * 请求线程只截取不超过上限的请求参数和请求结果，格式化和打印由{@link HttpLogWriter}在后台线程完成
  *
  * @author ZhangXiaoMing 2023-05-16 10:08 周二
  */
@@ -30,6 +33,28 @@ public class RetrofitLogInterceptor implements Interceptor {
 
     private static final String TAG = "RetrofitHttp";
 
+    /** 默认请求参数、请求结果截取上限，单位：B */
+    private static final long DEFAULT_MAX_BODY_SIZE = 32 * 1024;
+    /** 默认日志队列容量 */
+    private static final int DEFAULT_BUFFER_CAPACITY = 256;
+
+    /** 请求参数、请求结果截取上限，单位：B */
+    private final long mMaxBodySize;
+    private final HttpLogWriter mWriter;
+
+    public RetrofitLogInterceptor() {
+        this(DEFAULT_MAX_BODY_SIZE, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * @param maxBodySize    请求参数、请求结果截取上限，单位：B
+     * @param bufferCapacity 日志队列容量，队列满的时候丢弃新的日志
+     */
+    public RetrofitLogInterceptor(long maxBodySize, int bufferCapacity) {
+        this.mMaxBodySize = Math.max(0, maxBodySize);
+        this.mWriter = new HttpLogWriter(TAG, bufferCapacity);
+    }
+
     @NonNull
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
@@ -47,106 +72,98 @@ public class RetrofitLogInterceptor implements Interceptor {
 
         long responseCostTime = response.receivedResponseAtMillis() - response.sentRequestAtMillis();
 
-        LogUtils.debug(TAG, "Retrofit请求>>>url = " + request.url().toString().trim()
-                + "\n 整体请求耗时(包含拦截器耗时)=" + (costTime)
-                + "  请求耗时=" + responseCostTime
-                + "\n 请求参数=" + getRequestContent(request)
-                + "\n 请求结果=" + getResponseContent(response)
-        );
+        CappedSink requestSink = getRequestContent(request);
+        ByteString responseContent = null;
+        boolean responseTruncated = false;
 
-        return response;
-    }
+        ResponseBody responseBody = response.isSuccessful() ? response.body() : null;
+        if (responseBody != null) {
+            responseContent = response.peekBody(mMaxBodySize).byteString();
+            long contentLength = responseBody.contentLength();
+            responseTruncated = responseContent.size() >= mMaxBodySize
+                    && (contentLength < 0 || contentLength > mMaxBodySize);
+        }
 
+        mWriter.submit(new HttpLogEntry(request.url().toString().trim(),
+                costTime,
+                responseCostTime,
+                requestSink == null ? null : requestSink.mBuffer.readByteString(),
+                requestSink != null && requestSink.isTruncated,
+                responseContent,
+                responseTruncated));
 
-    /**
-     * 打印请求头
-     *
-     * @param request 请求的对象
-     */
-    private String getRequestHeaders(Request request) {
-        if (request == null)
-            return "";
+        return response;
+    }
 
-        return request.headers().toString();
+    /** 丢弃的日志数量 */
+    public long getDroppedCount() {
+        return mWriter.getDroppedCount();
     }
 
+
     /**
-     * 打印请求消息
+     * 截取请求消息
      *
      * @param request 请求的对象
      */
-    private String getRequestContent(Request request) {
+    private CappedSink getRequestContent(Request request) {
         if (request == null)
-            return "无";
+            return null;
 
         RequestBody requestBody = request.body();
-        if (requestBody == null)
-            return "无";
-
-        String content = "";
+        //只能写入一次的请求体不能为了打印日志提前写入
+        if (requestBody == null || requestBody.isOneShot() || requestBody.isDuplex())
+            return null;
 
+        CappedSink sink = new CappedSink(mMaxBodySize);
         try {
-            Buffer buffer = new Buffer();
-            requestBody.writeTo(buffer);
-            content = buffer.readUtf8();
+            BufferedSink bufferedSink = Okio.buffer(sink);
+            requestBody.writeTo(bufferedSink);
+            bufferedSink.flush();
         } catch (IOException e) {
             e.printStackTrace();
         }
 
-        if (TextUtils.isEmpty(content))
-            content = "无";
-
-        return content;
+        return sink;
     }
 
-    /**
-     * 打印返回消息
-     *
-     * @param response 返回的对象
-     */
-    private String getResponseContent(Response response) {
-        if (response == null || !response.isSuccessful())
-            return "";
 
-        ResponseBody responseBody = response.body();
-        if (responseBody == null)
-            return "";
+    /** 只保留前N个字节的Sink，超出的部分直接丢弃 */
+    private static final class CappedSink implements Sink {
 
-        long contentLength = responseBody.contentLength();
-        BufferedSource source = responseBody.source();
+        private final Buffer mBuffer = new Buffer();
+        private final long mLimit;
+        private boolean isTruncated;
 
-        try {
-            source.request(Long.MAX_VALUE); // Buffer the entire body.
-        } catch (IOException e) {
-            e.printStackTrace();
+        CappedSink(long limit) {
+            this.mLimit = limit;
         }
 
-        String content = "";
-
-        Buffer buffer = source.getBuffer();
-        if (contentLength != 0)
-            content = buffer.clone().readUtf8();
-
-        try {
-            if (isJsonFormat(content))
-                content = new JSONTokener(content).nextValue().toString();
-        } catch (JSONException e) {
-            e.printStackTrace();
+        @Override
+        public void write(@NonNull Buffer source, long byteCount) throws IOException {
+            long accept = Math.min(byteCount, mLimit - mBuffer.size());
+            if (accept > 0)
+                mBuffer.write(source, accept);
+
+            long rest = byteCount - Math.max(accept, 0);
+            if (rest > 0) {
+                isTruncated = true;
+                source.skip(rest);
+            }
         }
 
-        return content;
-    }
+        @Override
+        public void flush() {
+        }
 
-    /**
-     * 判断是否是Json格式
-     *
-     * @param content 请求数据
-     */
-    private boolean isJsonFormat(String content) {
-        if (TextUtils.isEmpty(content))
-            return false;
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
 
-        return (content.startsWith("[") && content.endsWith("]"))
-                || (content.startsWith("{") && content.endsWith("}"));
+        @Override
+        public void close() {
+        }
     }
 }
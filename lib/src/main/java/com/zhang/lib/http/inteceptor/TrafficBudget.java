@@ -0,0 +1,43 @@
+package com.zhang.lib.http.inteceptor;
+
+/**
+ * 令牌桶形式的额外请求预算
+ * <p>
+ * 每个正常请求存入一定比例的令牌，每个额外请求（重试、对冲请求）消耗一个令牌，
+ * 令牌不足时不再发起额外请求，额外请求的数量因此被限制在正常请求的一定比例之内
+ *
+ * @author ZhangXiaoMing 2026-10-18 17:02 周日
+ */
+final class TrafficBudget {
+
+    /** 每个正常请求存入的令牌数 */
+    private final float mRatio;
+    /** 令牌上限 */
+    private final float mMaxTokens;
+
+    private float mTokens;
+
+    /**
+     * @param ratio     额外请求占正常请求的比例
+     * @param maxTokens 令牌上限，也就是允许的连续额外请求数量
+     */
+    TrafficBudget(float ratio, int maxTokens) {
+        this.mRatio = Math.max(0F, ratio);
+        this.mMaxTokens = Math.max(1, maxTokens);
+        this.mTokens = mMaxTokens;
+    }
+
+    /** 记录一个正常请求 */
+    synchronized void deposit() {
+        mTokens = Math.min(mMaxTokens, mTokens + mRatio);
+    }
+
+    /** 尝试消耗一个令牌 */
+    synchronized boolean tryAcquire() {
+        if (mTokens < 1F)
+            return false;
+
+        mTokens -= 1F;
+        return true;
+    }
+}
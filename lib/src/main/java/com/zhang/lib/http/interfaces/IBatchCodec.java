@@ -0,0 +1,46 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * 批量请求编解码接口类，需要按照服务器批量接口的格式实现
+ *
+ * @author ZhangXiaoMing 2026-10-18 19:14 周日
+ */
+public interface IBatchCodec {
+
+    /**
+     * 是否可以编码此请求，不能编码的请求单独发出
+     *
+     * @param request 请求
+     */
+    default boolean isSupported(@NonNull Request request) {
+        return true;
+    }
+
+    /**
+     * 把多个请求合并成批量请求的请求体
+     *
+     * @param requests 请求列表
+     */
+    @NonNull
+    RequestBody encode(@NonNull List<Request> requests) throws IOException;
+
+    /**
+     * 拆分批量请求的结果
+     *
+     * @param requests      请求列表
+     * @param batchResponse 批量请求的结果
+     *
+     * @return 与请求列表一一对应的结果
+     */
+    @NonNull
+    List<Response> decode(@NonNull List<Request> requests, @NonNull Response batchResponse) throws IOException;
+}
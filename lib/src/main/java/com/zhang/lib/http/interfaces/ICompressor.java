@@ -0,0 +1,32 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.ContentEncoding;
+
+import java.io.IOException;
+
+import okio.Sink;
+
+/**
+ * 请求体压缩接口类
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:55 周日
+ */
+public interface ICompressor {
+
+    /** 压缩方式，作为Content-Encoding发送 */
+    @NonNull
+    @ContentEncoding
+    String encoding();
+
+    /**
+     * 压缩数据
+     *
+     * @param sink 压缩后的数据写入的Sink
+     *
+     * @return 写入原始数据的Sink，关闭时写出剩余的压缩数据并关闭sink
+     */
+    @NonNull
+    Sink compress(@NonNull Sink sink) throws IOException;
+}
@@ -0,0 +1,32 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.ContentEncoding;
+
+import java.io.IOException;
+
+import okio.Source;
+
+/**
+ * 请求结果解压接口类，gzip由OkHttp处理，不需要实现
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:57 周日
+ */
+public interface IDecompressor {
+
+    /** 压缩方式，与请求结果的Content-Encoding对应 */
+    @NonNull
+    @ContentEncoding
+    String encoding();
+
+    /**
+     * 解压数据
+     *
+     * @param source 压缩的数据流
+     *
+     * @return 解压后的数据流，关闭时需要同时关闭原始数据流
+     */
+    @NonNull
+    Source decompress(@NonNull Source source) throws IOException;
+}
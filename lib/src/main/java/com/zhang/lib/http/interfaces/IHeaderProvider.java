@@ -0,0 +1,23 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import okhttp3.Headers;
+
+/**
+ * 带版本号的请求Header提供者
+ * <p>
+ * 与{@link IHeaderBuilder}不同，不会每次请求都重新生成Header：
+ * 拦截器缓存上一次生成的Header，只有版本号变化（例如token更新）时才会重新调用{@link #generateRequestHeaders()}
+ *
+ * @author ZhangXiaoMing 2026-10-18 14:02 周日
+ */
+public interface IHeaderProvider {
+
+    /** 当前Header的版本号，Header发生变化时需要修改 */
+    long getHeaderVersion();
+
+    /** 生成请求的Header，只有版本号变化时才会调用 */
+    @NonNull
+    Headers generateRequestHeaders();
+}
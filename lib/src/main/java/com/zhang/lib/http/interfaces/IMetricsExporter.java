@@ -0,0 +1,20 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.metrics.MetricsSnapshot;
+
+/**
+ * 网络耗时数据导出接口类，例如上报到监控平台
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:40 周日
+ */
+public interface IMetricsExporter {
+
+    /**
+     * 导出耗时数据，在后台线程定时调用
+     *
+     * @param snapshot 累计的耗时数据，需要区间数据时使用{@link MetricsSnapshot#minus(MetricsSnapshot)}
+     */
+    void export(@NonNull MetricsSnapshot snapshot);
+}
@@ -0,0 +1,28 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接口请求结果外层字段分析器
+ * <p>
+ * 与{@link IResponseContentAnalyzer}不同，不需要把请求结果复制成String，
+ * 而是在Gson解析请求结果的同时提取最外层的字段，例如code、message
+ *
+ * @author ZhangXiaoMing 2026-10-18 11:46 周日
+ */
+public interface IResponseEnvelopeAnalyzer {
+
+    /** 需要提取的最外层字段名 */
+    @NonNull
+    Set<String> getEnvelopeKeys();
+
+    /**
+     * 分析请求结果外层字段
+     *
+     * @param envelope 提取到的字段，key为字段名，value为字段的原始值，字段值为null时value为null
+     */
+    void analyseResponseEnvelope(@NonNull Map<String, String> envelope);
+}
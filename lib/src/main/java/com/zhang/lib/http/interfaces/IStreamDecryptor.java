@@ -0,0 +1,30 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okio.Source;
+
+/**
+ * 流式解密接口类
+ * <p>
+ * 与{@link IDecryptor}不同，不需要把整个请求结果读取成String，而是包装原始数据流，
+ * 在解析器读取数据的同时分段解密
+ *
+ * @author ZhangXiaoMing 2026-10-18 10:26 周日
+ */
+public interface IStreamDecryptor {
+
+    /**
+     * 解密请求结果
+     *
+     * @param url    请求链接
+     * @param source 原始（密文）数据流
+     *
+     * @return 解密后的（明文）数据流，关闭时需要同时关闭原始数据流
+     */
+    @NonNull
+    Source decryptResponse(@NonNull String url, @NonNull Source source) throws IOException;
+
+}
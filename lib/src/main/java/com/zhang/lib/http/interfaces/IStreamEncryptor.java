@@ -0,0 +1,30 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okio.Sink;
+
+/**
+ * 流式加密接口类
+ * <p>
+ * 与{@link IEncryptor}不同，不需要把整个请求参数读取成String，而是包装OkHttp写入数据的Sink，
+ * 在写入的同时分段加密
+ *
+ * @author ZhangXiaoMing 2026-10-18 11:05 周日
+ */
+public interface IStreamEncryptor {
+
+    /**
+     * 参数加密
+     *
+     * @param url  请求链接
+     * @param sink 写入（密文）数据的Sink
+     *
+     * @return 接收明文数据的Sink，关闭时需要写出剩余的密文并关闭传入的Sink
+     */
+    @NonNull
+    Sink encryptParam(@NonNull String url, @NonNull Sink sink) throws IOException;
+
+}
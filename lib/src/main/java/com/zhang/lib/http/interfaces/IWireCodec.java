@@ -0,0 +1,49 @@
+package com.zhang.lib.http.interfaces;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+/**
+ * 二进制数据格式编解码接口类，例如Protocol Buffers、CBOR、MessagePack
+ * <p>
+ * 通过{@link com.zhang.lib.http.RetrofitSDK.BuildParam#addWireCodec(IWireCodec...)}添加后，
+ * 请求会在Accept中声明支持的格式，并按照请求结果的Content-Type选择解析方式
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:15 周日
+ */
+public interface IWireCodec {
+
+    /** 数据格式，例如application/x-protobuf */
+    @NonNull
+    MediaType mediaType();
+
+    /**
+     * 是否支持此类型
+     *
+     * @param type 请求参数或者请求结果类型
+     */
+    boolean supports(@NonNull Type type);
+
+    /**
+     * 解析请求结果
+     *
+     * @param type   请求结果类型
+     * @param source 请求结果数据流
+     */
+    Object decode(@NonNull Type type, @NonNull BufferedSource source) throws IOException;
+
+    /**
+     * 写入请求参数
+     *
+     * @param value 请求参数
+     * @param type  请求参数类型
+     * @param sink  请求体
+     */
+    void encode(@NonNull Object value, @NonNull Type type, @NonNull BufferedSink sink) throws IOException;
+}
@@ -0,0 +1,46 @@
+package com.zhang.lib.http.log;
+
+import androidx.annotation.Nullable;
+
+import okio.ByteString;
+
+/**
+ * 一次请求的日志数据，只保存原始数据，由后台线程格式化
+ *
+ * @author ZhangXiaoMing 2026-10-18 13:02 周日
+ */
+public class HttpLogEntry {
+
+    /** 请求链接 */
+    final String url;
+    /** 整体请求耗时(包含拦截器耗时) */
+    final long costTime;
+    /** 请求耗时 */
+    final long responseCostTime;
+    /** 请求参数，没有请求参数时为null */
+    @Nullable
+    final ByteString requestContent;
+    /** 请求参数是否被截断 */
+    final boolean requestTruncated;
+    /** 请求结果，请求失败或者没有请求结果时为null */
+    @Nullable
+    final ByteString responseContent;
+    /** 请求结果是否被截断 */
+    final boolean responseTruncated;
+
+    public HttpLogEntry(String url,
+                        long costTime,
+                        long responseCostTime,
+                        @Nullable ByteString requestContent,
+                        boolean requestTruncated,
+                        @Nullable ByteString responseContent,
+                        boolean responseTruncated) {
+        this.url = url;
+        this.costTime = costTime;
+        this.responseCostTime = responseCostTime;
+        this.requestContent = requestContent;
+        this.requestTruncated = requestTruncated;
+        this.responseContent = responseContent;
+        this.responseTruncated = responseTruncated;
+    }
+}
@@ -0,0 +1,171 @@
+package com.zhang.lib.http.log;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.library.utils.LogUtils;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import okio.ByteString;
+
+/**
+ * 请求日志输出器
+ * <p>
+ * 请求线程只把日志数据写入无锁队列，由单独的后台线程格式化并打印，队列满的时候丢弃日志并记录数量
+ *
+ * @author ZhangXiaoMing 2026-10-18 13:24 周日
+ */
+public class HttpLogWriter {
+
+    /** 队列为空时后台线程的最长等待时间 */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String mTag;
+    private final LogRingBuffer<HttpLogEntry> mBuffer;
+
+    /** 累计丢弃的日志数量 */
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    /** 已经输出过提示的丢弃数量 */
+    private long mReportedDroppedCount;
+
+    private volatile Thread mThread;
+    private volatile boolean isParked;
+
+    /**
+     * @param tag      日志TAG
+     * @param capacity 队列容量
+     */
+    public HttpLogWriter(@NonNull String tag, int capacity) {
+        this.mTag = tag;
+        this.mBuffer = new LogRingBuffer<>(capacity);
+    }
+
+    /**
+     * 提交日志，不会阻塞调用线程
+     *
+     * @param entry 日志数据
+     *
+     * @return 队列已满、日志被丢弃时返回false
+     */
+    public boolean submit(@NonNull HttpLogEntry entry) {
+        Thread thread = mThread;
+        if (thread == null)
+            thread = start();
+
+        if (!mBuffer.offer(entry)) {
+            mDroppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (isParked)
+            LockSupport.unpark(thread);
+
+        return true;
+    }
+
+    /** 累计丢弃的日志数量 */
+    public long getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    private synchronized Thread start() {
+        if (mThread == null) {
+            Thread thread = new Thread(this::loop, "RetrofitLogWriter");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+            mThread = thread;
+        }
+
+        return mThread;
+    }
+
+    private void loop() {
+        while (true) {
+            HttpLogEntry entry = mBuffer.poll();
+            if (entry == null) {
+                isParked = true;
+                entry = mBuffer.poll();
+                if (entry == null) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    isParked = false;
+                    continue;
+                }
+                isParked = false;
+            }
+
+            try {
+                write(entry);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(HttpLogEntry entry) {
+        long dropped = mDroppedCount.get();
+        if (dropped != mReportedDroppedCount) {
+            LogUtils.debug(mTag, "Retrofit请求>>>日志队列已满，丢弃" + (dropped - mReportedDroppedCount) + "条日志");
+            mReportedDroppedCount = dropped;
+        }
+
+        LogUtils.debug(mTag, "Retrofit请求>>>url = " + entry.url
+                + "\n 整体请求耗时(包含拦截器耗时)=" + entry.costTime
+                + "  请求耗时=" + entry.responseCostTime
+                + "\n 请求参数=" + getRequestContent(entry)
+                + "\n 请求结果=" + getResponseContent(entry)
+        );
+    }
+
+    /** 打印请求消息 */
+    private String getRequestContent(HttpLogEntry entry) {
+        String content = format(entry.requestContent, entry.requestTruncated);
+        if (TextUtils.isEmpty(content))
+            content = "无";
+
+        return content;
+    }
+
+    /** 打印返回消息 */
+    private String getResponseContent(HttpLogEntry entry) {
+        return format(entry.responseContent, entry.responseTruncated);
+    }
+
+    private String format(ByteString bytes, boolean truncated) {
+        if (bytes == null)
+            return "";
+
+        String content = bytes.utf8();
+        if (truncated)
+            return content + "...(已截断)";
+
+        try {
+            if (isJsonFormat(content))
+                content = new JSONTokener(content).nextValue().toString();
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+
+        return content;
+    }
+
+    /**
+     * 判断是否是Json格式
+     *
+     * @param content 请求数据
+     */
+    private boolean isJsonFormat(String content) {
+        if (TextUtils.isEmpty(content))
+            return false;
+
+        return (content.startsWith("[") && content.endsWith("]"))
+                || (content.startsWith("{") && content.endsWith("}"));
+    }
+}
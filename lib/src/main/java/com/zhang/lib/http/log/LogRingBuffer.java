@@ -0,0 +1,81 @@
+package com.zhang.lib.http.log;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 无锁有界环形队列，多个线程写入，单个线程读取
+ * <p>
+ * 每个槽位记录一个序号，写入线程通过CAS抢占写入位置，队列满的时候直接返回失败，不会阻塞请求线程
+ *
+ * @author ZhangXiaoMing 2026-10-18 13:10 周日
+ */
+final class LogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> mBuffer;
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+
+    /** 下一个写入位置 */
+    private final AtomicLong mHead = new AtomicLong();
+    /** 下一个读取位置，只有读取线程修改 */
+    private long mTail;
+
+    /**
+     * @param capacity 队列容量，会向上取整为2的幂
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mBuffer = new AtomicReferenceArray<>(size);
+        mSequences = new AtomicLongArray(size);
+        mMask = size - 1;
+
+        for (int index = 0; index < size; index++) {
+            mSequences.set(index, index);
+        }
+    }
+
+    /**
+     * 写入数据
+     *
+     * @param element 数据
+     *
+     * @return 队列已满的时候返回false
+     */
+    boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = mHead.get();
+            index = (int) (position & mMask);
+            long diff = mSequences.get(index) - position;
+            if (diff == 0) {
+                if (mHead.compareAndSet(position, position + 1))
+                    break;
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+
+        mBuffer.set(index, element);
+        mSequences.set(index, position + 1);
+        return true;
+    }
+
+    /** 读取数据，队列为空的时候返回null，只能在读取线程调用 */
+    @Nullable
+    E poll() {
+        int index = (int) (mTail & mMask);
+        if (mSequences.get(index) != mTail + 1)
+            return null;
+
+        E element = mBuffer.get(index);
+        mBuffer.set(index, null);
+        mSequences.set(index, mTail + mMask + 1);
+        mTail++;
+        return element;
+    }
+}
@@ -0,0 +1,90 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * 耗时直方图快照
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:30 周日
+ */
+public final class HistogramSnapshot {
+
+    private final long[] mCounts;
+    private final long mCount;
+    private final long mSum;
+    private final long mMax;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.mCounts = counts;
+        this.mCount = count;
+        this.mSum = sum;
+        this.mMax = max;
+    }
+
+    /** 记录次数 */
+    public long getCount() {
+        return mCount;
+    }
+
+    /** 平均耗时，单位：毫秒 */
+    public double getMean() {
+        return mCount == 0 ? 0 : mSum / 1000D / mCount;
+    }
+
+    /** 最大耗时，单位：毫秒 */
+    public double getMax() {
+        return mMax / 1000D;
+    }
+
+    /**
+     * 耗时分位，取所在桶的中间值
+     *
+     * @param percentile 分位，例如0.99
+     *
+     * @return 单位：毫秒
+     */
+    public double getPercentile(double percentile) {
+        long total = 0;
+        for (long count : mCounts) {
+            total += count;
+        }
+        if (total == 0)
+            return 0;
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(1D, Math.max(0D, percentile)) * total));
+        long seen = 0;
+        for (int i = 0; i < mCounts.length; i++) {
+            seen += mCounts[i];
+            if (seen >= target) {
+                double middle = LatencyHistogram.lowerBoundOf(i) + (LatencyHistogram.widthOf(i) - 1) / 2D;
+                return Math.min(middle, mMax) / 1000D;
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * 与之前的快照相减，得到这段时间内的数据，最大耗时仍然是累计的最大值
+     *
+     * @param previous 之前的快照
+     */
+    @NonNull
+    public HistogramSnapshot minus(@NonNull HistogramSnapshot previous) {
+        long[] counts = new long[mCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = Math.max(0, mCounts[i] - previous.mCounts[i]);
+        }
+
+        return new HistogramSnapshot(counts, Math.max(0, mCount - previous.mCount), Math.max(0, mSum - previous.mSum), mMax);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "count=%d mean=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                mCount, getMean(), getPercentile(0.5), getPercentile(0.9), getPercentile(0.99), getMax());
+    }
+}
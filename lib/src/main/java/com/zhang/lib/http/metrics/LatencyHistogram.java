@@ -0,0 +1,90 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 对数线性分桶的耗时直方图，单位：微秒
+ * <p>
+ * 每个2的幂区间再平均分成8个桶，相对误差不超过12.5%，固定占用约2KB。
+ * 记录只有几次原子操作，不加锁也不分配对象
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:25 周日
+ */
+public final class LatencyHistogram {
+
+    /** 每个2的幂区间的分桶位数 */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** 最大的2的幂，约19小时，超出的耗时记录在最后一个桶 */
+    private static final int MAX_EXPONENT = 36;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong mCount = new AtomicLong();
+    private final AtomicLong mSum = new AtomicLong();
+    private final AtomicLong mMax = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param micros 耗时，单位：微秒
+     */
+    public void record(long micros) {
+        if (micros < 0)
+            micros = 0;
+
+        mCounts.incrementAndGet(indexOf(micros));
+        mCount.incrementAndGet();
+        mSum.addAndGet(micros);
+
+        long max;
+        do {
+            max = mMax.get();
+        } while (micros > max && !mMax.compareAndSet(max, micros));
+    }
+
+    /** 当前数据的快照，记录与快照同时进行时各个字段之间可能有少量偏差 */
+    @NonNull
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = mCounts.get(i);
+        }
+
+        return new HistogramSnapshot(counts, mCount.get(), mSum.get(), mMax.get());
+    }
+
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKET_COUNT)
+            return (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT)
+            return BUCKET_COUNT - 1;
+
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /** 桶的下界，单位：微秒 */
+    static long lowerBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    /** 桶的宽度，单位：微秒 */
+    static long widthOf(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return 1;
+
+        return 1L << ((index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT);
+    }
+}
@@ -0,0 +1,46 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 一个域名或者接口的各阶段耗时，直方图在第一次记录时才创建
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:35 周日
+ */
+final class LatencyRecorder {
+
+    private final AtomicReferenceArray<LatencyHistogram> mHistograms = new AtomicReferenceArray<>(NetworkPhase.COUNT);
+    private final AtomicLong mCallCount = new AtomicLong();
+    private final AtomicLong mFailedCount = new AtomicLong();
+
+    void record(@NetworkPhase int phase, long micros) {
+        LatencyHistogram histogram = mHistograms.get(phase);
+        if (histogram == null) {
+            mHistograms.compareAndSet(phase, null, new LatencyHistogram());
+            histogram = mHistograms.get(phase);
+        }
+
+        histogram.record(micros);
+    }
+
+    void recordCall(boolean failed) {
+        mCallCount.incrementAndGet();
+        if (failed)
+            mFailedCount.incrementAndGet();
+    }
+
+    @NonNull
+    LatencySnapshot snapshot() {
+        HistogramSnapshot[] histograms = new HistogramSnapshot[NetworkPhase.COUNT];
+        for (int phase = 0; phase < NetworkPhase.COUNT; phase++) {
+            LatencyHistogram histogram = mHistograms.get(phase);
+            if (histogram != null)
+                histograms[phase] = histogram.snapshot();
+        }
+
+        return new LatencySnapshot(histograms, mCallCount.get(), mFailedCount.get());
+    }
+}
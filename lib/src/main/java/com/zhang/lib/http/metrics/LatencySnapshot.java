@@ -0,0 +1,80 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 一个域名或者接口的各阶段耗时快照
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:38 周日
+ */
+public final class LatencySnapshot {
+
+    private final HistogramSnapshot[] mHistograms;
+    private final long mCallCount;
+    private final long mFailedCount;
+
+    LatencySnapshot(HistogramSnapshot[] histograms, long callCount, long failedCount) {
+        this.mHistograms = histograms;
+        this.mCallCount = callCount;
+        this.mFailedCount = failedCount;
+    }
+
+    /**
+     * 阶段耗时
+     *
+     * @param phase 阶段
+     *
+     * @return 没有经过此阶段时为null，例如复用连接时没有DNS和CONNECT
+     */
+    @Nullable
+    public HistogramSnapshot get(@NetworkPhase int phase) {
+        return mHistograms[phase];
+    }
+
+    /** 请求次数 */
+    public long getCallCount() {
+        return mCallCount;
+    }
+
+    /** 失败次数 */
+    public long getFailedCount() {
+        return mFailedCount;
+    }
+
+    /**
+     * 与之前的快照相减，得到这段时间内的数据
+     *
+     * @param previous 之前的快照
+     */
+    @NonNull
+    public LatencySnapshot minus(@Nullable LatencySnapshot previous) {
+        if (previous == null)
+            return this;
+
+        HistogramSnapshot[] histograms = new HistogramSnapshot[mHistograms.length];
+        for (int phase = 0; phase < histograms.length; phase++) {
+            HistogramSnapshot current = mHistograms[phase];
+            HistogramSnapshot before = previous.mHistograms[phase];
+            histograms[phase] = current == null || before == null ? current : current.minus(before);
+        }
+
+        return new LatencySnapshot(histograms,
+                Math.max(0, mCallCount - previous.mCallCount),
+                Math.max(0, mFailedCount - previous.mFailedCount));
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append("calls=").append(mCallCount)
+                .append(" failed=").append(mFailedCount);
+        for (int phase = 0; phase < mHistograms.length; phase++) {
+            if (mHistograms[phase] != null)
+                builder.append("\n  ").append(NetworkMetrics.phaseName(phase)).append(": ").append(mHistograms[phase]);
+        }
+
+        return builder.toString();
+    }
+}
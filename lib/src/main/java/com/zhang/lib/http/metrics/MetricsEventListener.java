@@ -0,0 +1,215 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * 记录每个请求各阶段耗时的EventListener
+ * <p>
+ * 重试、重定向时同一个阶段会出现多次，耗时累加。同一个请求的事件按顺序回调，不需要同步
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:50 周日
+ */
+public class MetricsEventListener extends EventListener {
+
+    private final NetworkMetrics mMetrics;
+
+    /** 各阶段累计耗时，单位：纳秒，小于0表示没有经过此阶段 */
+    private final long[] mDurations = new long[NetworkPhase.COUNT];
+
+    private long mCallStart;
+    private long mDnsStart;
+    private long mConnectStart;
+    private long mSecureConnectStart;
+    private long mRequestStart = -1;
+    private long mRequestEnd;
+    private long mResponseBodyStart;
+    /** 本次占用网络的开始时间，释放连接后重置 */
+    private long mNetworkStart = -1;
+
+    public MetricsEventListener(@NonNull NetworkMetrics metrics) {
+        this.mMetrics = metrics;
+        Arrays.fill(mDurations, -1);
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        mCallStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        mDnsStart = System.nanoTime();
+        markNetworkStart(mDnsStart);
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        add(NetworkPhase.DNS, System.nanoTime() - mDnsStart);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        mConnectStart = System.nanoTime();
+        markNetworkStart(mConnectStart);
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        mSecureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        add(NetworkPhase.TLS, System.nanoTime() - mSecureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol) {
+        add(NetworkPhase.CONNECT, System.nanoTime() - mConnectStart);
+    }
+
+    @Override
+    public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol, @NonNull IOException ioe) {
+        add(NetworkPhase.CONNECT, System.nanoTime() - mConnectStart);
+    }
+
+    @Override
+    public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+        markNetworkStart(System.nanoTime());
+    }
+
+    @Override
+    public void connectionReleased(@NonNull Call call, @NonNull Connection connection) {
+        markNetworkEnd(System.nanoTime());
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        mRequestStart = System.nanoTime();
+        mRequestEnd = mRequestStart;
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        mRequestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        mRequestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        if (mRequestStart < 0)
+            return;
+
+        long now = System.nanoTime();
+        add(NetworkPhase.REQUEST_WRITE, mRequestEnd - mRequestStart);
+        add(NetworkPhase.FIRST_BYTE, now - mRequestEnd);
+        mRequestStart = -1;
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        mResponseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        add(NetworkPhase.RESPONSE_READ, System.nanoTime() - mResponseBodyStart);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        finish(call, false);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        finish(call, true);
+    }
+
+
+    private void markNetworkStart(long now) {
+        if (mNetworkStart < 0)
+            mNetworkStart = now;
+    }
+
+    private void markNetworkEnd(long now) {
+        if (mNetworkStart < 0)
+            return;
+
+        add(NetworkPhase.NETWORK, now - mNetworkStart);
+        mNetworkStart = -1;
+    }
+
+    private void add(@NetworkPhase int phase, long nanos) {
+        mDurations[phase] = Math.max(0, mDurations[phase]) + Math.max(0, nanos);
+    }
+
+    private void finish(Call call, boolean failed) {
+        long now = System.nanoTime();
+        markNetworkEnd(now);
+
+        long total = now - mCallStart;
+        add(NetworkPhase.TOTAL, total);
+        add(NetworkPhase.OVERHEAD, total - Math.max(0, mDurations[NetworkPhase.NETWORK]));
+
+        long[] micros = new long[NetworkPhase.COUNT];
+        for (int phase = 0; phase < micros.length; phase++) {
+            micros[phase] = mDurations[phase] < 0 ? -1 : mDurations[phase] / 1000;
+        }
+
+        Request request = call.request();
+        mMetrics.record(request.url().host(), getEndpoint(request), micros, failed);
+    }
+
+    /**
+     * 接口名称，Retrofit请求为「接口类全名.方法名」，其他请求为「请求方式 域名」
+     * <p>
+     * 非Retrofit请求的路径里经常带有id等参数，按路径统计会很快占满数量限制
+     */
+    private static String getEndpoint(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null)
+            return request.method() + " " + request.url().host();
+
+        Method method = invocation.method();
+        return method.getDeclaringClass().getName() + "." + method.getName();
+    }
+
+
+    /** 每个请求创建一个{@link MetricsEventListener} */
+    public static class Factory implements EventListener.Factory {
+
+        private final NetworkMetrics mMetrics;
+
+        public Factory(@NonNull NetworkMetrics metrics) {
+            this.mMetrics = metrics;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            return new MetricsEventListener(mMetrics);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 所有域名和接口的耗时快照
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:42 周日
+ */
+public final class MetricsSnapshot {
+
+    private final long mTimestamp;
+    private final Map<String, LatencySnapshot> mHosts;
+    private final Map<String, LatencySnapshot> mEndpoints;
+
+    MetricsSnapshot(long timestamp, Map<String, LatencySnapshot> hosts, Map<String, LatencySnapshot> endpoints) {
+        this.mTimestamp = timestamp;
+        this.mHosts = Collections.unmodifiableMap(hosts);
+        this.mEndpoints = Collections.unmodifiableMap(endpoints);
+    }
+
+    /** 快照时间，单位：毫秒 */
+    public long getTimestamp() {
+        return mTimestamp;
+    }
+
+    /** 按域名统计的耗时 */
+    @NonNull
+    public Map<String, LatencySnapshot> getHosts() {
+        return mHosts;
+    }
+
+    /** 按接口统计的耗时，key为「接口类.方法名」 */
+    @NonNull
+    public Map<String, LatencySnapshot> getEndpoints() {
+        return mEndpoints;
+    }
+
+    /**
+     * 与之前的快照相减，得到这段时间内的数据
+     *
+     * @param previous 之前的快照
+     */
+    @NonNull
+    public MetricsSnapshot minus(@Nullable MetricsSnapshot previous) {
+        if (previous == null)
+            return this;
+
+        return new MetricsSnapshot(mTimestamp, minus(mHosts, previous.mHosts), minus(mEndpoints, previous.mEndpoints));
+    }
+
+    private static Map<String, LatencySnapshot> minus(Map<String, LatencySnapshot> current, Map<String, LatencySnapshot> previous) {
+        Map<String, LatencySnapshot> result = new HashMap<>();
+        for (Map.Entry<String, LatencySnapshot> entry : current.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().minus(previous.get(entry.getKey())));
+        }
+
+        return result;
+    }
+}
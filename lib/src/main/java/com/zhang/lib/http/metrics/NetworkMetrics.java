@@ -0,0 +1,158 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.constant.RetrofitConstant;
+import com.zhang.lib.http.interfaces.IMetricsExporter;
+import com.zhang.library.utils.LogUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按域名和接口统计的网络耗时
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:45 周日
+ */
+public class NetworkMetrics {
+
+    /** 最多统计的域名、接口数量，超出的合并到{@link #OTHER} */
+    private static final int MAX_KEYS = 256;
+    /** 超出数量限制的域名、接口 */
+    public static final String OTHER = "other";
+
+    private static final String[] PHASE_NAMES = {
+            "dns", "connect", "tls", "requestWrite", "firstByte", "responseRead", "network", "overhead", "total"
+    };
+
+    private final ConcurrentHashMap<String, LatencyRecorder> mHosts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyRecorder> mEndpoints = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService mExportExecutor;
+    private ScheduledFuture<?> mExportFuture;
+
+    /**
+     * 记录一次请求
+     *
+     * @param host     域名
+     * @param endpoint 接口
+     * @param micros   各阶段耗时，单位：微秒，小于0表示没有经过此阶段
+     * @param failed   是否失败
+     */
+    void record(@NonNull String host, @NonNull String endpoint, @NonNull long[] micros, boolean failed) {
+        record(getRecorder(mHosts, host), micros, failed);
+        record(getRecorder(mEndpoints, endpoint), micros, failed);
+    }
+
+    /** 所有域名和接口的耗时快照 */
+    @NonNull
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.currentTimeMillis(), snapshot(mHosts), snapshot(mEndpoints));
+    }
+
+    /**
+     * 域名的耗时快照
+     *
+     * @param host 域名
+     */
+    @Nullable
+    public LatencySnapshot getHostSnapshot(@NonNull String host) {
+        LatencyRecorder recorder = mHosts.get(host);
+        return recorder == null ? null : recorder.snapshot();
+    }
+
+    /**
+     * 接口的耗时快照
+     *
+     * @param endpoint 接口，格式为「接口类全名.方法名」，非Retrofit请求为「请求方式 域名」
+     */
+    @Nullable
+    public LatencySnapshot getEndpointSnapshot(@NonNull String endpoint) {
+        LatencyRecorder recorder = mEndpoints.get(endpoint);
+        return recorder == null ? null : recorder.snapshot();
+    }
+
+    /**
+     * 设置定时导出，会替换之前设置的导出
+     *
+     * @param exporter 导出方式，为空时停止导出
+     * @param interval 导出间隔，单位：毫秒
+     */
+    public synchronized void setExporter(@Nullable IMetricsExporter exporter, long interval) {
+        if (mExportFuture != null) {
+            mExportFuture.cancel(false);
+            mExportFuture = null;
+        }
+        if (exporter == null || interval <= 0)
+            return;
+
+        if (mExportExecutor == null) {
+            mExportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "RetrofitMetrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        mExportFuture = mExportExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                exporter.export(snapshot());
+            } catch (Throwable e) {
+                //导出失败不能影响后续的导出
+                LogUtils.info(RetrofitConstant.TAG, "NetworkMetrics>>>export failed: " + e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 阶段名称
+     *
+     * @param phase 阶段
+     */
+    @NonNull
+    public static String phaseName(@NetworkPhase int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+
+    private static void record(LatencyRecorder recorder, long[] micros, boolean failed) {
+        recorder.recordCall(failed);
+        for (int phase = 0; phase < micros.length; phase++) {
+            if (micros[phase] >= 0)
+                recorder.record(phase, micros[phase]);
+        }
+    }
+
+    private static LatencyRecorder getRecorder(ConcurrentHashMap<String, LatencyRecorder> map, String key) {
+        LatencyRecorder recorder = map.get(key);
+        if (recorder != null)
+            return recorder;
+
+        if (map.size() >= MAX_KEYS) {
+            //超出数量后大部分请求都合并到OTHER，先查找避免每次都创建新对象
+            key = OTHER;
+            recorder = map.get(OTHER);
+            if (recorder != null)
+                return recorder;
+        }
+
+        recorder = new LatencyRecorder();
+        LatencyRecorder previous = map.putIfAbsent(key, recorder);
+        return previous != null ? previous : recorder;
+    }
+
+    private static Map<String, LatencySnapshot> snapshot(Map<String, LatencyRecorder> map) {
+        Map<String, LatencySnapshot> result = new HashMap<>();
+        for (Map.Entry<String, LatencyRecorder> entry : map.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        return result;
+    }
+}
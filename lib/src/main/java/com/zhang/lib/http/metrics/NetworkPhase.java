@@ -0,0 +1,49 @@
+package com.zhang.lib.http.metrics;
+
+import androidx.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * 请求耗时阶段
+ *
+ * @author ZhangXiaoMing 2026-10-18 22:20 周日
+ */
+
+@Retention(RetentionPolicy.SOURCE)
+@IntDef({
+        NetworkPhase.DNS,
+        NetworkPhase.CONNECT,
+        NetworkPhase.TLS,
+        NetworkPhase.REQUEST_WRITE,
+        NetworkPhase.FIRST_BYTE,
+        NetworkPhase.RESPONSE_READ,
+        NetworkPhase.NETWORK,
+        NetworkPhase.OVERHEAD,
+        NetworkPhase.TOTAL,
+})
+public @interface NetworkPhase {
+
+    /** 域名解析 */
+    int DNS = 0;
+    /** 建立连接，包含TLS握手 */
+    int CONNECT = 1;
+    /** TLS握手 */
+    int TLS = 2;
+    /** 写入请求头和请求体 */
+    int REQUEST_WRITE = 3;
+    /** 请求写完到收到响应头，即服务器处理耗时 */
+    int FIRST_BYTE = 4;
+    /** 读取请求结果 */
+    int RESPONSE_READ = 5;
+    /** 从开始建立连接到释放连接的耗时，重试和重定向时累加 */
+    int NETWORK = 6;
+    /** 整个请求耗时减去网络耗时，即拦截器、加解密、解析等本地处理的耗时 */
+    int OVERHEAD = 7;
+    /** 整个请求耗时 */
+    int TOTAL = 8;
+
+    /** 阶段数量 */
+    int COUNT = 9;
+}
@@ -0,0 +1,125 @@
+package com.zhang.lib.http.pipeline;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 解密和解析请求结果的计算线程池
+ * <p>
+ * 线程数与CPU核数相同，队列有上限。队列满时由提交任务的线程自己执行，
+ * 网络线程因此变慢、少读取新的请求结果，起到背压的作用
+ *
+ * @author ZhangXiaoMing 2026-10-19 00:10 周一
+ */
+public class ComputePipeline {
+
+    /** 每个线程对应的队列长度 */
+    private static final int QUEUE_SIZE_PER_THREAD = 16;
+
+    private final ThreadPoolExecutor mExecutor;
+
+    /** 提交的任务数量 */
+    private final AtomicLong mSubmittedCount = new AtomicLong();
+    /** 队列满时由提交线程执行的任务数量 */
+    private final AtomicLong mCallerRunsCount = new AtomicLong();
+    /** 出现过的最大队列长度 */
+    private final AtomicInteger mMaxQueueDepth = new AtomicInteger();
+
+    public ComputePipeline() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads 线程数
+     */
+    public ComputePipeline(int threads) {
+        int size = Math.max(threads, 1);
+        this.mExecutor = new ThreadPoolExecutor(size, size, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(size * QUEUE_SIZE_PER_THREAD),
+                new ComputeThreadFactory(),
+                new CallerRunsHandler());
+        this.mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 执行计算任务，队列满时在当前线程执行
+     *
+     * @param task 任务
+     */
+    public void execute(@NonNull Runnable task) {
+        mSubmittedCount.incrementAndGet();
+        mExecutor.execute(task);
+
+        int depth = mExecutor.getQueue().size();
+        int max;
+        while (depth > (max = mMaxQueueDepth.get())) {
+            if (mMaxQueueDepth.compareAndSet(max, depth))
+                break;
+        }
+    }
+
+    /** 线程数 */
+    public int getThreadCount() {
+        return mExecutor.getMaximumPoolSize();
+    }
+
+    /** 当前排队的任务数量 */
+    public int getQueueDepth() {
+        return mExecutor.getQueue().size();
+    }
+
+    /** 出现过的最大队列长度 */
+    public int getMaxQueueDepth() {
+        return mMaxQueueDepth.get();
+    }
+
+    /** 队列的容量 */
+    public int getQueueCapacity() {
+        return mExecutor.getQueue().size() + mExecutor.getQueue().remainingCapacity();
+    }
+
+    /** 正在执行的任务数量 */
+    public int getActiveCount() {
+        return mExecutor.getActiveCount();
+    }
+
+    /** 提交的任务数量 */
+    public long getSubmittedCount() {
+        return mSubmittedCount.get();
+    }
+
+    /** 队列满时由提交线程执行的任务数量，数量持续增加说明计算线程不够用 */
+    public long getCallerRunsCount() {
+        return mCallerRunsCount.get();
+    }
+
+
+    private final class CallerRunsHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            mCallerRunsCount.incrementAndGet();
+            r.run();
+        }
+    }
+
+
+    private static final class ComputeThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger mIndex = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            Thread thread = new Thread(r, "RetrofitCompute-" + mIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.zhang.lib.http.scheduler;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.annotation.Priority;
+import com.zhang.lib.http.constant.RequestPriority;
+import com.zhang.lib.http.metrics.HistogramSnapshot;
+import com.zhang.lib.http.metrics.LatencyHistogram;
+import com.zhang.lib.http.utils.RequestAnnotations;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/**
+ * 按优先级调度请求的Call.Factory，作为Retrofit的callFactory使用
+ * <p>
+ * OkHttp的{@link okhttp3.Dispatcher}按照先进先出的顺序执行请求，大量后台请求会排在用户正在等待的请求前面。
+ * 这里在交给Dispatcher之前按照优先级排队：同时执行的请求总数、每个域名的请求数和每个优先级的请求数都有上限，
+ * 有空位时先执行优先级高的请求。请求每排队{@code agingInterval}提升一级，低优先级的请求不会一直等待。
+ * <p>
+ * 总数和每个域名的请求数与Dispatcher一致，这样Dispatcher中不会再排队，优先级才能生效
+ * <p>
+ * 同步请求默认不排队，与Dispatcher一致不受并发数限制：RxJava的默认适配器使用同步请求，排队会让所有Rx请求都被限流。
+ * 开启{@code syncScheduling}后同步请求也按优先级排队，排队时间计入{@link Call#timeout()}，超时抛出{@link InterruptedIOException}
+ *
+ * @author ZhangXiaoMing 2026-10-19 01:15 周一
+ */
+public final class PriorityCallFactory implements Call.Factory {
+
+    /** 默认每排队2秒提升一级优先级 */
+    public static final long DEFAULT_AGING_INTERVAL = 2000;
+
+    private final Call.Factory mCallFactory;
+    /** 同时执行的请求总数 */
+    private final int mMaxRequests;
+    /** 每个域名同时执行的请求数 */
+    private final int mMaxRequestsPerHost;
+    /** 每个优先级同时执行的请求数 */
+    private final int[] mLimits = new int[RequestPriority.COUNT];
+    /** 提升一级优先级需要的排队时间，单位：纳秒 */
+    private final long mAgingNanos;
+    /** 同步请求是否排队 */
+    private final boolean isSyncScheduling;
+
+    /** 每个优先级的等待队列，由this加锁 */
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<PriorityCall>[] mQueues = new ArrayDeque[RequestPriority.COUNT];
+    /** 每个优先级正在执行的请求数，由this加锁 */
+    private final int[] mRunning = new int[RequestPriority.COUNT];
+    private int mRunningTotal;
+    /** 每个域名正在执行的请求数，由this加锁 */
+    private final Map<String, Integer> mRunningPerHost = new HashMap<>();
+
+    /** 每个优先级的排队耗时 */
+    private final LatencyHistogram[] mWaitHistograms = new LatencyHistogram[RequestPriority.COUNT];
+
+    public PriorityCallFactory(@NonNull OkHttpClient client) {
+        this(client, 0, null, DEFAULT_AGING_INTERVAL, false);
+    }
+
+    /**
+     * @param client         实际发出请求的OkHttpClient
+     * @param maxRequests    同时执行的请求总数，小于等于0时使用Dispatcher的最大并发数，每个域名的请求数与Dispatcher一致
+     * @param limits         每个优先级同时执行的请求数，按照{@link RequestPriority}的顺序，为空或者小于等于0时使用默认值：
+     *                       高优先级为总数，普通优先级为总数减1，低优先级为总数的一半
+     * @param agingInterval  提升一级优先级需要的排队时间，单位：毫秒，小于等于0时不提升
+     * @param syncScheduling 同步请求是否排队，不排队时与Dispatcher一致不受并发数限制
+     */
+    public PriorityCallFactory(@NonNull OkHttpClient client, int maxRequests, int[] limits, long agingInterval,
+                               boolean syncScheduling) {
+        this(client, maxRequests > 0 ? maxRequests : client.dispatcher().getMaxRequests(),
+                client.dispatcher().getMaxRequestsPerHost(), limits, agingInterval, syncScheduling);
+    }
+
+    PriorityCallFactory(@NonNull Call.Factory callFactory, int maxRequests, int maxRequestsPerHost, int[] limits,
+                        long agingInterval, boolean syncScheduling) {
+        this.mCallFactory = callFactory;
+        this.mMaxRequests = maxRequests;
+        this.mMaxRequestsPerHost = maxRequestsPerHost;
+        this.mAgingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(agingInterval, 0));
+        this.isSyncScheduling = syncScheduling;
+
+        int[] defaults = {mMaxRequests, Math.max(mMaxRequests - 1, 1), Math.max(mMaxRequests / 2, 1)};
+        for (int i = 0; i < RequestPriority.COUNT; i++) {
+            int limit = limits != null && i < limits.length ? limits[i] : 0;
+            mLimits[i] = Math.min(limit > 0 ? limit : defaults[i], mMaxRequests);
+            mQueues[i] = new ArrayDeque<>();
+            mWaitHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return new PriorityCall(mCallFactory.newCall(request), priorityOf(request));
+    }
+
+    /** 同时执行的请求总数 */
+    public int getMaxRequests() {
+        return mMaxRequests;
+    }
+
+    /** 正在排队的请求数 */
+    public synchronized int getQueuedCount(@RequestPriority int priority) {
+        return mQueues[priority].size();
+    }
+
+    /** 正在执行的请求数 */
+    public synchronized int getRunningCount(@RequestPriority int priority) {
+        return mRunning[priority];
+    }
+
+    /** 排队耗时，单位：微秒 */
+    @NonNull
+    public HistogramSnapshot getWaitSnapshot(@RequestPriority int priority) {
+        return mWaitHistograms[priority].snapshot();
+    }
+
+
+    /** 请求的优先级，{@link PriorityTag}优先于接口上的注解 */
+    private static int priorityOf(Request request) {
+        PriorityTag tag = request.tag(PriorityTag.class);
+        if (tag != null)
+            return tag.getPriority();
+
+        Priority priority = RequestAnnotations.get(request, Priority.class);
+        if (priority == null || priority.value() < 0 || priority.value() >= RequestPriority.COUNT)
+            return RequestPriority.NORMAL;
+
+        return priority.value();
+    }
+
+    private void enqueue(PriorityCall call) {
+        synchronized (this) {
+            call.queuedAt = System.nanoTime();
+            mQueues[call.priority].add(call);
+        }
+        promote();
+    }
+
+    /**
+     * 从队列中移除还没有开始的请求
+     *
+     * @return 请求还在排队时返回true
+     */
+    private synchronized boolean remove(PriorityCall call) {
+        return mQueues[call.priority].remove(call);
+    }
+
+    private void finished(PriorityCall call) {
+        synchronized (this) {
+            mRunning[call.priority]--;
+            mRunningTotal--;
+
+            int hostRunning = mRunningPerHost.get(call.host) - 1;
+            if (hostRunning > 0)
+                mRunningPerHost.put(call.host, hostRunning);
+            else
+                mRunningPerHost.remove(call.host);
+        }
+        promote();
+    }
+
+    /** 有空位时按优先级开始排队的请求，在锁外开始请求 */
+    private void promote() {
+        List<PriorityCall> ready = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            while (mRunningTotal < mMaxRequests) {
+                PriorityCall call = pollNext(now);
+                if (call == null)
+                    break;
+
+                mRunning[call.priority]++;
+                mRunningTotal++;
+                mRunningPerHost.put(call.host, runningOf(call.host) + 1);
+                ready.add(call);
+            }
+        }
+
+        for (PriorityCall call : ready) {
+            mWaitHistograms[call.priority].record(TimeUnit.NANOSECONDS.toMicros(now - call.queuedAt));
+            call.start();
+        }
+    }
+
+    /**
+     * 取出下一个可以开始的请求：每个优先级只比较域名还有空位的最早排队的请求，
+     * 排队时间折算后级别最高的先开始，级别相同时原本优先级高的先开始
+     */
+    private PriorityCall pollNext(long now) {
+        PriorityCall next = null;
+        long nextLevel = Long.MAX_VALUE;
+        for (int priority = 0; priority < RequestPriority.COUNT; priority++) {
+            if (mRunning[priority] >= mLimits[priority])
+                continue;
+
+            PriorityCall head = null;
+            for (PriorityCall call : mQueues[priority]) {
+                if (runningOf(call.host) < mMaxRequestsPerHost) {
+                    head = call;
+                    break;
+                }
+            }
+            if (head == null)
+                continue;
+
+            long level = mAgingNanos > 0 ? priority - (now - head.queuedAt) / mAgingNanos : priority;
+            if (level < nextLevel) {
+                next = head;
+                nextLevel = level;
+            }
+        }
+
+        if (next != null)
+            mQueues[next.priority].remove(next);
+        return next;
+    }
+
+    private int runningOf(String host) {
+        Integer running = mRunningPerHost.get(host);
+        return running == null ? 0 : running;
+    }
+
+
+    /** 排队后才交给OkHttp执行的Call */
+    private final class PriorityCall implements Call {
+
+        private final Call mDelegate;
+        @RequestPriority
+        final int priority;
+        /** 请求的域名，与Dispatcher一样按域名限制并发数 */
+        final String host;
+
+        /** 开始排队的时间，由PriorityCallFactory加锁 */
+        long queuedAt;
+
+        private boolean isExecuted;
+        /** 由PriorityCall加锁修改 */
+        private volatile boolean isCanceled;
+        /** 异步请求的回调，同步请求为空 */
+        private volatile Callback mCallback;
+        /** 同步请求等待开始 */
+        private final CountDownLatch mStartLatch = new CountDownLatch(1);
+        /** 已经占用了执行名额，结束时需要释放，由PriorityCall加锁修改 */
+        private volatile boolean isStarted;
+
+        PriorityCall(Call delegate, int priority) {
+            this.mDelegate = delegate;
+            this.priority = priority;
+            this.host = delegate.request().url().host();
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            markExecuted();
+            if (!isSyncScheduling)
+                return mDelegate.execute();
+
+            enqueue(this);
+
+            //排队时间计入请求的超时时间，剩余的时间留给实际请求
+            Timeout timeout = mDelegate.timeout();
+            long timeoutNanos = timeout.timeoutNanos();
+            long waitStart = System.nanoTime();
+            try {
+                if (timeoutNanos <= 0) {
+                    mStartLatch.await();
+                } else if (!mStartLatch.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    //已经被调度器取出但还没有开始时，由start()释放名额
+                    if (cancelIfNotStarted())
+                        throw new InterruptedIOException("timeout");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                //已经被调度器取出但还没有开始时，由start()释放名额
+                cancel();
+                synchronized (this) {
+                    if (!isStarted)
+                        throw new InterruptedIOException("Canceled");
+                }
+            }
+
+            if (!isStarted)
+                throw new IOException("Canceled");
+
+            if (timeoutNanos > 0)
+                timeout.timeout(Math.max(timeoutNanos - (System.nanoTime() - waitStart), 1), TimeUnit.NANOSECONDS);
+            try {
+                return mDelegate.execute();
+            } finally {
+                finished(this);
+            }
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback responseCallback) {
+            markExecuted();
+            mCallback = responseCallback;
+            PriorityCallFactory.this.enqueue(this);
+        }
+
+        /** 轮到此请求时由调度器调用 */
+        void start() {
+            boolean canceled;
+            synchronized (this) {
+                canceled = isCanceled;
+                isStarted = !canceled;
+            }
+
+            Callback callback = mCallback;
+            //取出后、开始前被取消的请求已经不在队列中，cancel()没有结束它，这里释放名额
+            if (canceled) {
+                finished(this);
+                if (callback == null)
+                    mStartLatch.countDown();
+                else
+                    callback.onFailure(this, new IOException("Canceled"));
+                return;
+            }
+
+            if (callback == null) {
+                mStartLatch.countDown();
+                return;
+            }
+
+            //与Dispatcher一致，回调结束后才释放名额
+            mDelegate.enqueue(new Callback() {
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                    try {
+                        callback.onResponse(PriorityCall.this, response);
+                    } finally {
+                        finished(PriorityCall.this);
+                    }
+                }
+
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    try {
+                        callback.onFailure(PriorityCall.this, e);
+                    } finally {
+                        finished(PriorityCall.this);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                isCanceled = true;
+            }
+            mDelegate.cancel();
+
+            //还在排队的请求直接结束
+            if (!remove(this))
+                return;
+
+            Callback callback = mCallback;
+            if (callback == null)
+                mStartLatch.countDown();
+            else
+                callback.onFailure(this, new IOException("Canceled"));
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return isCanceled || mDelegate.isCanceled();
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return isExecuted;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return mDelegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return mDelegate.timeout();
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new PriorityCall(mDelegate.clone(), priority);
+        }
+
+        /**
+         * 还没有开始时取消请求
+         *
+         * @return 取消成功返回true，已经开始时返回false
+         */
+        private boolean cancelIfNotStarted() {
+            synchronized (this) {
+                if (isStarted)
+                    return false;
+
+                isCanceled = true;
+            }
+            cancel();
+            return true;
+        }
+
+        private synchronized void markExecuted() {
+            if (isExecuted)
+                throw new IllegalStateException("Already Executed");
+
+            isExecuted = true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.zhang.lib.http.scheduler;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.RequestPriority;
+
+/**
+ * 单次请求的优先级，通过Retrofit的{@link retrofit2.http.Tag}参数传入，优先于接口上的{@link com.zhang.lib.http.annotation.Priority}注解
+ *
+ * @author ZhangXiaoMing 2026-10-19 01:10 周一
+ */
+public final class PriorityTag {
+
+    private static final PriorityTag[] TAGS = {
+            new PriorityTag(RequestPriority.HIGH),
+            new PriorityTag(RequestPriority.NORMAL),
+            new PriorityTag(RequestPriority.LOW),
+    };
+
+    @RequestPriority
+    private final int mPriority;
+
+    private PriorityTag(@RequestPriority int priority) {
+        this.mPriority = priority;
+    }
+
+    @NonNull
+    public static PriorityTag of(@RequestPriority int priority) {
+        if (priority < 0 || priority >= TAGS.length)
+            throw new IllegalArgumentException("Unknown priority: " + priority);
+
+        return TAGS[priority];
+    }
+
+    @RequestPriority
+    public int getPriority() {
+        return mPriority;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PriorityTag{" + mPriority + "}";
+    }
+}
@@ -0,0 +1,227 @@
+package com.zhang.lib.http.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 外层请求的取消通知
+ * <p>
+ * 拦截器自己发出的请求不在外层请求的调用链上，外层请求取消时不会被取消。
+ * 通过{@link #wrap(EventListener.Factory)}包装OkHttpClient的EventListener后，
+ * 可以用{@link #register(Call, Runnable)}在外层请求取消时立即收到通知
+ *
+ * @author ZhangXiaoMing 2026-10-19 09:30 周一
+ */
+public final class CallCancellation {
+
+    private static final ConcurrentHashMap<Call, Runnable> LISTENERS = new ConcurrentHashMap<>();
+
+    private CallCancellation() {
+    }
+
+    /**
+     * 注册取消通知，已经取消时立即执行
+     *
+     * @param call     外层请求
+     * @param listener 取消时执行，在调用cancel()的线程中执行
+     */
+    public static void register(@NonNull Call call, @NonNull Runnable listener) {
+        LISTENERS.put(call, listener);
+        if (call.isCanceled() && LISTENERS.remove(call, listener))
+            listener.run();
+    }
+
+    /**
+     * 移除取消通知
+     *
+     * @param call 外层请求
+     */
+    public static void unregister(@NonNull Call call) {
+        LISTENERS.remove(call);
+    }
+
+    /**
+     * 包装EventListener，其他事件交给原来的EventListener处理
+     *
+     * @param delegate 原来的EventListener，可以为空
+     */
+    @NonNull
+    public static EventListener.Factory wrap(@Nullable EventListener.Factory delegate) {
+        return call -> new CancellationEventListener(delegate == null ? EventListener.NONE : delegate.create(call));
+    }
+
+
+    private static final class CancellationEventListener extends EventListener {
+
+        private final EventListener mDelegate;
+
+        CancellationEventListener(EventListener delegate) {
+            this.mDelegate = delegate;
+        }
+
+        @Override
+        public void canceled(@NonNull Call call) {
+            mDelegate.canceled(call);
+
+            Runnable listener = LISTENERS.remove(call);
+            if (listener != null)
+                listener.run();
+        }
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            mDelegate.callStart(call);
+        }
+
+        @Override
+        public void proxySelectStart(@NonNull Call call, @NonNull HttpUrl url) {
+            mDelegate.proxySelectStart(call, url);
+        }
+
+        @Override
+        public void proxySelectEnd(@NonNull Call call, @NonNull HttpUrl url, @NonNull List<Proxy> proxies) {
+            mDelegate.proxySelectEnd(call, url, proxies);
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            mDelegate.dnsStart(call, domainName);
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+            mDelegate.dnsEnd(call, domainName, inetAddressList);
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+            mDelegate.connectStart(call, inetSocketAddress, proxy);
+        }
+
+        @Override
+        public void secureConnectStart(@NonNull Call call) {
+            mDelegate.secureConnectStart(call);
+        }
+
+        @Override
+        public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+            mDelegate.secureConnectEnd(call, handshake);
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol) {
+            mDelegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+        }
+
+        @Override
+        public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol, @NonNull IOException ioe) {
+            mDelegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+        }
+
+        @Override
+        public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+            mDelegate.connectionAcquired(call, connection);
+        }
+
+        @Override
+        public void connectionReleased(@NonNull Call call, @NonNull Connection connection) {
+            mDelegate.connectionReleased(call, connection);
+        }
+
+        @Override
+        public void requestHeadersStart(@NonNull Call call) {
+            mDelegate.requestHeadersStart(call);
+        }
+
+        @Override
+        public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+            mDelegate.requestHeadersEnd(call, request);
+        }
+
+        @Override
+        public void requestBodyStart(@NonNull Call call) {
+            mDelegate.requestBodyStart(call);
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            mDelegate.requestBodyEnd(call, byteCount);
+        }
+
+        @Override
+        public void requestFailed(@NonNull Call call, @NonNull IOException ioe) {
+            mDelegate.requestFailed(call, ioe);
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            mDelegate.responseHeadersStart(call);
+        }
+
+        @Override
+        public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+            mDelegate.responseHeadersEnd(call, response);
+        }
+
+        @Override
+        public void responseBodyStart(@NonNull Call call) {
+            mDelegate.responseBodyStart(call);
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            mDelegate.responseBodyEnd(call, byteCount);
+        }
+
+        @Override
+        public void responseFailed(@NonNull Call call, @NonNull IOException ioe) {
+            mDelegate.responseFailed(call, ioe);
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            mDelegate.callEnd(call);
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            mDelegate.callFailed(call, ioe);
+        }
+
+        @Override
+        public void satisfactionFailure(@NonNull Call call, @NonNull Response response) {
+            mDelegate.satisfactionFailure(call, response);
+        }
+
+        @Override
+        public void cacheHit(@NonNull Call call, @NonNull Response response) {
+            mDelegate.cacheHit(call, response);
+        }
+
+        @Override
+        public void cacheMiss(@NonNull Call call) {
+            mDelegate.cacheMiss(call);
+        }
+
+        @Override
+        public void cacheConditionalHit(@NonNull Call call, @NonNull Response cachedResponse) {
+            mDelegate.cacheConditionalHit(call, cachedResponse);
+        }
+    }
+}
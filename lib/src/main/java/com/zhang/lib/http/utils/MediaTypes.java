@@ -0,0 +1,29 @@
+package com.zhang.lib.http.utils;
+
+import androidx.annotation.Nullable;
+
+import okhttp3.MediaType;
+
+/**
+ * 请求体、请求结果类型判断
+ *
+ * @author ZhangXiaoMing 2026-10-18 21:10 周日
+ */
+public final class MediaTypes {
+
+    private MediaTypes() {
+    }
+
+    /**
+     * 类型和子类型是否相同，忽略charset等参数
+     *
+     * @param a 内容类型
+     * @param b 内容类型
+     */
+    public static boolean isSameType(@Nullable MediaType a, @Nullable MediaType b) {
+        if (a == null || b == null)
+            return false;
+
+        return a.type().equalsIgnoreCase(b.type()) && a.subtype().equalsIgnoreCase(b.subtype());
+    }
+}
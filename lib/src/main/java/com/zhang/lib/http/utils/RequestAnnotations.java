@@ -0,0 +1,86 @@
+package com.zhang.lib.http.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zhang.lib.http.annotation.Idempotent;
+import com.zhang.lib.http.constant.RequestMethod;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * 读取请求对应的接口方法上的注解
+ * <p>
+ * Retrofit创建的请求会带有{@link Invocation}标记，每个接口方法的注解只反射读取一次
+ *
+ * @author ZhangXiaoMing 2026-10-18 16:55 周日
+ */
+public final class RequestAnnotations {
+
+    private static final Map<Method, Annotation[]> ANNOTATION_CACHE = new ConcurrentHashMap<>();
+
+    private RequestAnnotations() {
+    }
+
+    /**
+     * 获取请求对应的接口方法上的注解
+     *
+     * @param request 请求
+     * @param type    注解类型
+     */
+    @Nullable
+    public static <A extends Annotation> A get(@NonNull Request request, @NonNull Class<A> type) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null)
+            return null;
+
+        return get(invocation.method(), type);
+    }
+
+    /**
+     * 获取接口方法上的注解
+     *
+     * @param method 接口方法
+     * @param type   注解类型
+     */
+    @Nullable
+    public static <A extends Annotation> A get(@NonNull Method method, @NonNull Class<A> type) {
+        Annotation[] annotations = ANNOTATION_CACHE.get(method);
+        if (annotations == null) {
+            annotations = method.getAnnotations();
+            ANNOTATION_CACHE.put(method, annotations);
+        }
+
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType() == type)
+                return type.cast(annotation);
+        }
+
+        return null;
+    }
+
+    /**
+     * 请求是否是幂等的
+     *
+     * @param request 请求
+     */
+    public static boolean isIdempotent(@NonNull Request request) {
+        switch (request.method()) {
+            case RequestMethod.GET:
+            case RequestMethod.HEAD:
+            case RequestMethod.PUT:
+            case RequestMethod.DELETE:
+            case RequestMethod.OPTIONS:
+            case RequestMethod.TRACE:
+                return true;
+            default:
+                return get(request, Idempotent.class) != null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.zhang.lib.http.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+
+/**
+ * 生成请求的唯一标识：请求方式 + 链接 + Header + 请求体类型 + 请求体SHA-256
+ *
+ * @author ZhangXiaoMing 2026-10-18 18:20 周日
+ */
+public final class RequestKeys {
+
+    /** 超过此长度的请求体不生成标识，单位：B */
+    private static final long MAX_BODY_SIZE = 64 * 1024;
+
+    private RequestKeys() {
+    }
+
+    /**
+     * 生成请求的唯一标识，包含所有Header
+     *
+     * @param request 请求
+     *
+     * @return 请求体过大或者只能写入一次时返回null
+     */
+    @Nullable
+    public static String create(@NonNull Request request) {
+        return create(request, null);
+    }
+
+    /**
+     * 生成请求的唯一标识
+     *
+     * @param request     请求
+     * @param headerNames 参与生成标识的Header，为空时使用所有Header
+     *
+     * @return 请求体过大或者只能写入一次时返回null
+     */
+    @Nullable
+    public static String create(@NonNull Request request, @Nullable Collection<String> headerNames) {
+        StringBuilder builder = new StringBuilder(request.method())
+                .append(' ')
+                .append(request.url());
+
+        //names()按名称排序，添加顺序不同的相同Header得到相同的标识
+        Headers headers = request.headers();
+        for (String name : headerNames == null ? headers.names() : headerNames) {
+            for (String value : headers.values(name)) {
+                builder.append('\n').append(name).append(": ").append(value);
+            }
+        }
+
+        RequestBody body = request.body();
+        if (body == null)
+            return builder.toString();
+
+        if (body.isOneShot() || body.isDuplex())
+            return null;
+
+        try {
+            if (body.contentLength() > MAX_BODY_SIZE)
+                return null;
+
+            //长度未知的请求体写入时限制长度，超过时立即停止，不会先完整读入内存
+            Buffer buffer = new Buffer();
+            BufferedSink sink = Okio.buffer(new LimitedSink(buffer));
+            body.writeTo(sink);
+            sink.flush();
+
+            MediaType contentType = body.contentType();
+            return builder.append(' ')
+                    .append(contentType)
+                    .append(' ')
+                    .append(buffer.sha256().hex())
+                    .toString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+
+    /** 写入超过{@link #MAX_BODY_SIZE}时抛出异常 */
+    private static class LimitedSink extends ForwardingSink {
+
+        private long mWritten;
+
+        LimitedSink(Buffer delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(@NonNull Buffer source, long byteCount) throws IOException {
+            mWritten += byteCount;
+            if (mWritten > MAX_BODY_SIZE)
+                throw new IOException("Request body exceeds " + MAX_BODY_SIZE + " bytes");
+
+            super.write(source, byteCount);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.zhang.lib.http.scheduler;
+
+import androidx.annotation.NonNull;
+
+import com.zhang.lib.http.constant.RequestPriority;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link PriorityCallFactory}的调度和名额统计
+ *
+ * @author ZhangXiaoMing 2026-10-19 10:30 周一
+ */
+public class PriorityCallFactoryTest {
+
+    private final FakeCallFactory mDelegate = new FakeCallFactory();
+
+    @Test
+    public void perHostLimit() {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 10, 2, null, 0, false);
+        RecordingCallback callback = new RecordingCallback();
+
+        for (int i = 0; i < 3; i++) {
+            factory.newCall(request("a.com", RequestPriority.NORMAL)).enqueue(callback);
+        }
+        factory.newCall(request("b.com", RequestPriority.NORMAL)).enqueue(callback);
+
+        assertEquals(3, mDelegate.started.size());
+        assertEquals(1, factory.getQueuedCount(RequestPriority.NORMAL));
+
+        mDelegate.started.get(0).respond();
+        assertEquals(4, mDelegate.started.size());
+        assertEquals("a.com", mDelegate.started.get(3).request().url().host());
+        assertEquals(0, factory.getQueuedCount(RequestPriority.NORMAL));
+        assertEquals(3, factory.getRunningCount(RequestPriority.NORMAL));
+    }
+
+    @Test
+    public void higherPriorityStartsFirst() {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 0, false);
+        RecordingCallback callback = new RecordingCallback();
+
+        factory.newCall(request("a.com", RequestPriority.NORMAL)).enqueue(callback);
+        factory.newCall(request("b.com", RequestPriority.LOW)).enqueue(callback);
+        factory.newCall(request("c.com", RequestPriority.HIGH)).enqueue(callback);
+
+        mDelegate.started.get(0).respond();
+        assertEquals("c.com", mDelegate.started.get(1).request().url().host());
+    }
+
+    @Test
+    public void agingPromotesWaitingCall() throws InterruptedException {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 50, false);
+        RecordingCallback callback = new RecordingCallback();
+
+        factory.newCall(request("a.com", RequestPriority.NORMAL)).enqueue(callback);
+        factory.newCall(request("low.com", RequestPriority.LOW)).enqueue(callback);
+        //低优先级排队超过3个周期后级别高于刚排队的高优先级
+        Thread.sleep(200);
+        factory.newCall(request("high.com", RequestPriority.HIGH)).enqueue(callback);
+
+        mDelegate.started.get(0).respond();
+        assertEquals("low.com", mDelegate.started.get(1).request().url().host());
+    }
+
+    @Test
+    public void cancelBeforeDequeue() {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 0, false);
+        RecordingCallback callback = new RecordingCallback();
+
+        factory.newCall(request("a.com", RequestPriority.NORMAL)).enqueue(callback);
+        Call queued = factory.newCall(request("b.com", RequestPriority.NORMAL));
+        queued.enqueue(callback);
+
+        queued.cancel();
+        assertEquals(1, callback.failures.size());
+        assertSame(queued, callback.failures.get(0));
+        assertEquals(0, factory.getQueuedCount(RequestPriority.NORMAL));
+
+        mDelegate.started.get(0).respond();
+        assertEquals(1, mDelegate.started.size());
+        assertEquals(0, factory.getRunningCount(RequestPriority.NORMAL));
+    }
+
+    @Test
+    public void cancelAfterDequeueBeforeStart() {
+        //LOW最多1个，每个域名最多1个：结束a.com的LOW请求后同时取出a.com的NORMAL请求和b.com的LOW请求
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 3, 1, null, 0, false);
+        RecordingCallback callback = new RecordingCallback();
+
+        factory.newCall(request("a.com", RequestPriority.LOW)).enqueue(callback);
+        Call normal = factory.newCall(request("a.com", RequestPriority.NORMAL));
+        normal.enqueue(callback);
+        Call low = factory.newCall(request("b.com", RequestPriority.LOW));
+        low.enqueue(callback);
+        assertEquals(1, mDelegate.started.size());
+
+        //先开始的请求交给OkHttp时取消后一个已经取出但还没有开始的请求
+        mDelegate.onStart = call -> low.cancel();
+        mDelegate.started.get(0).respond();
+
+        assertEquals(2, mDelegate.started.size());
+        assertEquals(1, callback.failures.size());
+        assertSame(low, callback.failures.get(0));
+        assertEquals(1, factory.getRunningCount(RequestPriority.NORMAL));
+        assertEquals(0, factory.getRunningCount(RequestPriority.LOW));
+        assertEquals(0, factory.getQueuedCount(RequestPriority.LOW));
+    }
+
+    @Test
+    public void cancelRunningReleasesSlot() {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 0, false);
+        RecordingCallback callback = new RecordingCallback();
+
+        Call running = factory.newCall(request("a.com", RequestPriority.NORMAL));
+        running.enqueue(callback);
+        factory.newCall(request("b.com", RequestPriority.NORMAL)).enqueue(callback);
+
+        running.cancel();
+        assertTrue(running.isCanceled());
+        assertSame(running, callback.failures.get(0));
+        assertEquals(2, mDelegate.started.size());
+        assertEquals(1, factory.getRunningCount(RequestPriority.NORMAL));
+    }
+
+    @Test
+    public void syncCallBypassesQueueByDefault() throws IOException {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 0, false);
+        factory.newCall(request("a.com", RequestPriority.NORMAL)).enqueue(new RecordingCallback());
+
+        Response response = factory.newCall(request("b.com", RequestPriority.NORMAL)).execute();
+        assertNotNull(response);
+        assertEquals(1, factory.getRunningCount(RequestPriority.NORMAL));
+    }
+
+    @Test
+    public void syncCallQueueWaitIsBoundedByTimeout() throws IOException {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 0, true);
+        factory.newCall(request("a.com", RequestPriority.NORMAL)).enqueue(new RecordingCallback());
+
+        mDelegate.timeoutMillis = 100;
+        Call call = factory.newCall(request("b.com", RequestPriority.NORMAL));
+        try {
+            call.execute();
+            fail();
+        } catch (InterruptedIOException e) {
+            assertEquals("timeout", e.getMessage());
+        }
+        assertEquals(0, factory.getQueuedCount(RequestPriority.NORMAL));
+
+        mDelegate.started.get(0).respond();
+        assertEquals(0, factory.getRunningCount(RequestPriority.NORMAL));
+        assertFalse(mDelegate.calls.get(1).isExecuted());
+    }
+
+    @Test
+    public void syncCallRunsWhenSlotIsFree() throws IOException {
+        PriorityCallFactory factory = new PriorityCallFactory(mDelegate, 1, 5, null, 0, true);
+
+        assertNotNull(factory.newCall(request("a.com", RequestPriority.NORMAL)).execute());
+        assertEquals(0, factory.getRunningCount(RequestPriority.NORMAL));
+    }
+
+
+    private static Request request(String host, @RequestPriority int priority) {
+        return new Request.Builder()
+                .url("https://" + host + "/")
+                .tag(PriorityTag.class, PriorityTag.of(priority))
+                .build();
+    }
+
+
+    private interface StartListener {
+        void onStart(FakeCall call);
+    }
+
+    /** 不发出网络请求，由测试控制结束时机 */
+    private static final class FakeCallFactory implements Call.Factory {
+
+        final List<FakeCall> calls = new ArrayList<>();
+        /** 按开始顺序排列的异步请求 */
+        final List<FakeCall> started = new ArrayList<>();
+        StartListener onStart;
+        long timeoutMillis;
+
+        @NonNull
+        @Override
+        public Call newCall(@NonNull Request request) {
+            FakeCall call = new FakeCall(this, request);
+            call.timeout.timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            calls.add(call);
+            return call;
+        }
+    }
+
+    private static final class FakeCall implements Call {
+
+        private final FakeCallFactory mFactory;
+        private final Request mRequest;
+        final Timeout timeout = new Timeout();
+
+        private Callback mCallback;
+        private boolean isExecuted;
+        private boolean isCanceled;
+
+        FakeCall(FakeCallFactory factory, Request request) {
+            this.mFactory = factory;
+            this.mRequest = request;
+        }
+
+        void respond() {
+            try {
+                mCallback.onResponse(this, response(mRequest));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            isExecuted = true;
+            if (isCanceled)
+                throw new IOException("Canceled");
+
+            return response(mRequest);
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback responseCallback) {
+            isExecuted = true;
+            mCallback = responseCallback;
+            mFactory.started.add(this);
+            if (mFactory.onStart != null)
+                mFactory.onStart.onStart(this);
+        }
+
+        @Override
+        public void cancel() {
+            if (isCanceled)
+                return;
+
+            isCanceled = true;
+            //与OkHttp一致，已经开始的异步请求取消后回调失败
+            if (mCallback != null)
+                mCallback.onFailure(this, new IOException("Canceled"));
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return isCanceled;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return isExecuted;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return mRequest;
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return timeout;
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new FakeCall(mFactory, mRequest);
+        }
+
+        private static Response response(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .build();
+        }
+    }
+
+    private static final class RecordingCallback implements Callback {
+
+        final List<Call> failures = new ArrayList<>();
+
+        @Override
+        public void onFailure(@NonNull Call call, @NonNull IOException e) {
+            failures.add(call);
+        }
+
+        @Override
+        public void onResponse(@NonNull Call call, @NonNull Response response) {
+        }
+    }
+}
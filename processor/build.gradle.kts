@@ -0,0 +1,31 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+val libGroupId = "com.library.xiaoming6672"
+val libArtifactId = "http-processor"
+//与lib的版本保持一致
+val libVersionName = "1.5.8"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+    withSourcesJar()
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("release") {
+            groupId = libGroupId
+            artifactId = libArtifactId
+            version = libVersionName
+
+            from(components["java"])
+        }
+    }
+}
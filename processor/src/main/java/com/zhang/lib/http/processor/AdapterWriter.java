@@ -0,0 +1,284 @@
+package com.zhang.lib.http.processor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 拼接生成的TypeAdapter源码
+ *
+ * @author ZhangXiaoMing 2026-10-18 20:40 周日
+ */
+final class AdapterWriter {
+
+    private static final String GSON = "com.google.gson.Gson";
+    private static final String TYPE_ADAPTER = "com.google.gson.TypeAdapter";
+    private static final String TYPE_TOKEN = "com.google.gson.reflect.TypeToken";
+    private static final String JSON_READER = "com.google.gson.stream.JsonReader";
+    private static final String JSON_WRITER = "com.google.gson.stream.JsonWriter";
+    private static final String JSON_TOKEN = "com.google.gson.stream.JsonToken";
+    private static final String JSON_SYNTAX_EXCEPTION = "com.google.gson.JsonSyntaxException";
+    private static final String REFLECTIVE_ADAPTER = "com.google.gson.internal.bind.ReflectiveTypeAdapterFactory.Adapter";
+
+    private final String mPackageName;
+    private final String mAdapterName;
+    private final String mTypeName;
+    private final List<Property> mProperties;
+
+    /** 字段类型对应的TypeAdapter方法名 */
+    private final Map<String, String> mAdapters = new LinkedHashMap<>();
+
+    /** 是否有字段需要按照实际类型写出 */
+    private boolean hasRuntimeTyped;
+
+    private final StringBuilder mBuilder = new StringBuilder();
+
+    AdapterWriter(String packageName, String adapterName, String typeName, List<Property> properties) {
+        this.mPackageName = packageName;
+        this.mAdapterName = adapterName;
+        this.mTypeName = typeName;
+        this.mProperties = properties;
+
+        for (Property property : properties) {
+            if (property.isInlined())
+                continue;
+
+            String adapterMethod = mAdapters.get(property.typeName);
+            if (adapterMethod == null) {
+                adapterMethod = "adapter" + mAdapters.size();
+                mAdapters.put(property.typeName, adapterMethod);
+            }
+            property.adapterName = adapterMethod;
+            hasRuntimeTyped |= property.isRuntimeTyped;
+        }
+    }
+
+    String write() {
+        line(0, "// Generated by TypeAdapterProcessor, do not modify.");
+        if (!mPackageName.isEmpty()) {
+            line(0, "package " + mPackageName + ";");
+            line(0, "");
+        }
+
+        line(0, "public final class " + mAdapterName + " extends " + TYPE_ADAPTER + "<" + mTypeName + "> {");
+        line(0, "");
+        line(1, "private final " + GSON + " gson;");
+        for (Map.Entry<String, String> entry : mAdapters.entrySet()) {
+            line(1, "private " + adapterType(entry.getKey()) + " " + entry.getValue() + ";");
+        }
+        line(0, "");
+        line(1, "public " + mAdapterName + "(" + GSON + " gson) {");
+        line(2, "this.gson = gson;");
+        line(1, "}");
+
+        writeWrite();
+        if (hasRuntimeTyped)
+            writeRuntimeTypeWrite();
+        writeRead();
+        for (Map.Entry<String, String> entry : mAdapters.entrySet()) {
+            writeAdapterGetter(entry.getKey(), entry.getValue());
+        }
+
+        line(0, "}");
+        return mBuilder.toString();
+    }
+
+    private void writeWrite() {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public void write(" + JSON_WRITER + " out, " + mTypeName + " value) throws java.io.IOException {");
+        line(2, "if (value == null) {");
+        line(3, "out.nullValue();");
+        line(3, "return;");
+        line(2, "}");
+        line(0, "");
+        line(2, "out.beginObject();");
+        for (Property property : mProperties) {
+            String getter = "value." + property.getter;
+            line(2, "out.name(" + literal(property.name) + ");");
+            switch (property.kind) {
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    line(2, "out.value((long) " + getter + ");");
+                    break;
+                case FLOAT:
+                    //与Gson一致，float按照Float.toString写出
+                    line(2, "out.value((java.lang.Number) java.lang.Float.valueOf(" + getter + "));");
+                    break;
+                case DOUBLE:
+                case BOOLEAN:
+                    line(2, "out.value(" + getter + ");");
+                    break;
+                default:
+                    if (property.isRuntimeTyped)
+                        line(2, "writeRuntimeType(out, " + property.adapterName + "(), " + property.typeName + ".class, " + getter + ");");
+                    else
+                        line(2, property.adapterName + "().write(out, " + getter + ");");
+                    break;
+            }
+        }
+        line(2, "out.endObject();");
+        line(1, "}");
+    }
+
+    /**
+     * 与Gson的TypeAdapterRuntimeTypeWrapper一致：值的类型与声明的类型不同时使用实际类型的TypeAdapter，
+     * 实际类型只能反射解析而声明的类型有自定义TypeAdapter时仍使用声明类型的TypeAdapter
+     */
+    private void writeRuntimeTypeWrite() {
+        line(0, "");
+        line(1, "@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line(1, "private void writeRuntimeType(" + JSON_WRITER + " out, " + TYPE_ADAPTER + " declared, java.lang.Class<?> declaredType, java.lang.Object value) throws java.io.IOException {");
+        line(2, TYPE_ADAPTER + " adapter = declared;");
+        line(2, "if (value != null && value.getClass() != declaredType) {");
+        line(3, TYPE_ADAPTER + " runtime = gson.getAdapter(value.getClass());");
+        line(3, "if (!(runtime instanceof " + REFLECTIVE_ADAPTER + ") || declared instanceof " + REFLECTIVE_ADAPTER + ") {");
+        line(4, "adapter = runtime;");
+        line(3, "}");
+        line(2, "}");
+        line(2, "adapter.write(out, value);");
+        line(1, "}");
+    }
+
+    private void writeRead() {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public " + mTypeName + " read(" + JSON_READER + " in) throws java.io.IOException {");
+        line(2, "if (in.peek() == " + JSON_TOKEN + ".NULL) {");
+        line(3, "in.nextNull();");
+        line(3, "return null;");
+        line(2, "}");
+        line(0, "");
+        line(2, mTypeName + " value = new " + mTypeName + "();");
+        line(2, "try {");
+        line(3, "in.beginObject();");
+        line(3, "while (in.hasNext()) {");
+        line(4, "switch (in.nextName()) {");
+        for (Property property : mProperties) {
+            line(5, "case " + literal(property.name) + ":");
+            for (String alternate : property.alternateNames) {
+                line(5, "case " + literal(alternate) + ":");
+            }
+            writeReadProperty(property);
+            line(6, "break;");
+        }
+        line(5, "default:");
+        line(6, "in.skipValue();");
+        line(6, "break;");
+        line(4, "}");
+        line(3, "}");
+        line(3, "in.endObject();");
+        line(2, "} catch (java.lang.IllegalStateException | java.lang.NumberFormatException e) {");
+        line(3, "throw new " + JSON_SYNTAX_EXCEPTION + "(e);");
+        line(2, "}");
+        line(2, "return value;");
+        line(1, "}");
+    }
+
+    private void writeReadProperty(Property property) {
+        if (property.isPrimitive()) {
+            //与Gson一致，基本类型解析到null时保留默认值
+            line(6, "if (in.peek() == " + JSON_TOKEN + ".NULL) {");
+            line(7, "in.nextNull();");
+            line(7, "break;");
+            line(6, "}");
+        }
+
+        String read;
+        switch (property.kind) {
+            case BYTE:
+                read = "(byte) in.nextInt()";
+                break;
+            case SHORT:
+                read = "(short) in.nextInt()";
+                break;
+            case INT:
+                read = "in.nextInt()";
+                break;
+            case LONG:
+                read = "in.nextLong()";
+                break;
+            case FLOAT:
+                read = "(float) in.nextDouble()";
+                break;
+            case DOUBLE:
+                read = "in.nextDouble()";
+                break;
+            case BOOLEAN:
+                read = "in.peek() == " + JSON_TOKEN + ".STRING ? java.lang.Boolean.parseBoolean(in.nextString()) : in.nextBoolean()";
+                break;
+            default:
+                read = property.adapterName + "().read(in)";
+                break;
+        }
+
+        line(6, "value." + String.format(property.setter, read) + ";");
+    }
+
+    private void writeAdapterGetter(String typeName, String methodName) {
+        String adapterType = adapterType(typeName);
+
+        line(0, "");
+        line(1, "private " + adapterType + " " + methodName + "() {");
+        line(2, adapterType + " adapter = " + methodName + ";");
+        line(2, "if (adapter == null) {");
+        if (typeName.indexOf('<') < 0) {
+            line(3, "adapter = gson.getAdapter(" + typeName + ".class);");
+        } else {
+            line(3, "adapter = gson.getAdapter(new " + TYPE_TOKEN + "<" + typeName + ">() {");
+            line(3, "});");
+        }
+        line(3, methodName + " = adapter;");
+        line(2, "}");
+        line(2, "return adapter;");
+        line(1, "}");
+    }
+
+    private static String adapterType(String typeName) {
+        return TYPE_ADAPTER + "<" + typeName + ">";
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                    break;
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                mBuilder.append("    ");
+            }
+            mBuilder.append(text);
+        }
+        mBuilder.append('\n');
+    }
+}
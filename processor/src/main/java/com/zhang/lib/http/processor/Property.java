@@ -0,0 +1,63 @@
+package com.zhang.lib.http.processor;
+
+import java.util.List;
+
+import javax.lang.model.type.TypeKind;
+
+/**
+ * 生成TypeAdapter时的一个字段
+ *
+ * @author ZhangXiaoMing 2026-10-18 20:20 周日
+ */
+final class Property {
+
+    /** JSON字段名 */
+    final String name;
+    /** 解析时可以使用的其他字段名 */
+    final List<String> alternateNames;
+    /** 字段类型的源码写法 */
+    final String typeName;
+    /** 字段类型，基本类型直接读写，其他类型使用Gson的TypeAdapter */
+    final TypeKind kind;
+    /** 读取字段的表达式，例如field或getField() */
+    final String getter;
+    /** 写入字段的语句格式，%s替换为值，例如field = %s或setField(%s) */
+    final String setter;
+    /** 字段类型可能有子类，写出时与Gson一致按照值的实际类型选择TypeAdapter */
+    final boolean isRuntimeTyped;
+
+    /** 使用的TypeAdapter方法名，基本类型为空 */
+    String adapterName;
+
+    Property(String name, List<String> alternateNames, String typeName, TypeKind kind, String getter, String setter,
+             boolean isRuntimeTyped) {
+        this.name = name;
+        this.alternateNames = alternateNames;
+        this.typeName = typeName;
+        this.kind = kind;
+        this.getter = getter;
+        this.setter = setter;
+        this.isRuntimeTyped = isRuntimeTyped;
+    }
+
+    /** 是否直接使用JsonReader和JsonWriter读写 */
+    boolean isInlined() {
+        switch (kind) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** 是否是基本类型，解析到null时保留默认值 */
+    boolean isPrimitive() {
+        return kind.isPrimitive();
+    }
+}
@@ -0,0 +1,314 @@
+package com.zhang.lib.http.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * 为添加了GenerateTypeAdapter注解的类生成Gson的TypeAdapter
+ * <p>
+ * 生成的TypeAdapter与Gson默认的反射解析结果保持一致：跳过static和transient字段，支持SerializedName，
+ * 子类字段在前，基本类型解析到null时保留默认值，字段的值是子类时按照实际类型写出。无法生成的类只给出提示，运行时继续使用反射解析
+ * <p>
+ * 与Gson不同的是，不能直接访问的私有字段通过getter/setter读写：getter/setter中有其他逻辑时，
+ * 解析结果会与反射不同，这类字段需要改为非私有或者去掉getter/setter中的逻辑
+ *
+ * @author ZhangXiaoMing 2026-10-18 20:25 周日
+ */
+public class TypeAdapterProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.zhang.lib.http.annotation.GenerateTypeAdapter";
+    static final String SUFFIX = "_GsonTypeAdapter";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    private Elements mElements;
+    private Types mTypes;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        mElements = processingEnv.getElementUtils();
+        mTypes = processingEnv.getTypeUtils();
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@GenerateTypeAdapter can only be applied to classes");
+                    continue;
+                }
+
+                TypeElement type = (TypeElement) element;
+                List<Property> properties = parse(type);
+                if (properties == null)
+                    continue;
+
+                try {
+                    write(type, properties);
+                } catch (IOException e) {
+                    error(type, "generate TypeAdapter failed: " + e.getMessage());
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 解析需要读写的字段
+     *
+     * @return 无法生成时为null
+     */
+    private List<Property> parse(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT))
+            return skip(type, "abstract class");
+        if (!type.getTypeParameters().isEmpty())
+            return skip(type, "generic class");
+        if (!isAccessible(type))
+            return skip(type, "class is not accessible from its package");
+        if (!hasNoArgConstructor(type))
+            return skip(type, "no accessible no-arg constructor");
+
+        PackageElement pkg = mElements.getPackageOf(type);
+        DeclaredType declaredType = (DeclaredType) type.asType();
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        TypeElement current = type;
+        while (current != null && !"java.lang.Object".equals(current.getQualifiedName().toString())) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> fieldModifiers = field.getModifiers();
+                if (fieldModifiers.contains(Modifier.STATIC) || fieldModifiers.contains(Modifier.TRANSIENT))
+                    continue;
+                if (getAnnotation(field, JSON_ADAPTER) != null)
+                    return skip(type, "@JsonAdapter on field " + field.getSimpleName());
+
+                TypeMirror fieldType = mTypes.asMemberOf(declaredType, field);
+                if (!isSupported(fieldType))
+                    return skip(type, "unsupported type of field " + field.getSimpleName());
+
+                Property property = createProperty(type, pkg, current, field, fieldType);
+                if (property == null)
+                    return skip(type, "field " + field.getSimpleName() + " has no accessible getter and setter");
+
+                if (!names.add(property.name))
+                    return skip(type, "duplicate JSON name " + property.name);
+                for (String alternate : property.alternateNames) {
+                    if (!names.add(alternate))
+                        return skip(type, "duplicate JSON name " + alternate);
+                }
+
+                properties.add(property);
+            }
+
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) mTypes.asElement(superclass) : null;
+        }
+
+        return properties;
+    }
+
+    private Property createProperty(TypeElement type, PackageElement pkg, TypeElement owner, VariableElement field, TypeMirror fieldType) {
+        String fieldName = field.getSimpleName().toString();
+
+        String name = fieldName;
+        List<String> alternateNames = new ArrayList<>();
+        AnnotationMirror serializedName = getAnnotation(field, SERIALIZED_NAME);
+        if (serializedName != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mElements.getElementValuesWithDefaults(serializedName).entrySet()) {
+                String key = entry.getKey().getSimpleName().toString();
+                if ("value".equals(key)) {
+                    name = (String) entry.getValue().getValue();
+                } else if ("alternate".equals(key)) {
+                    for (Object value : (List<?>) entry.getValue().getValue()) {
+                        alternateNames.add((String) ((AnnotationValue) value).getValue());
+                    }
+                }
+            }
+        }
+
+        TypeKind kind = fieldType.getKind();
+        String typeName = kind == TypeKind.CHAR
+                ? mTypes.boxedClass(mTypes.getPrimitiveType(kind)).getQualifiedName().toString()
+                : fieldType.toString();
+
+        //与Gson的TypeAdapterRuntimeTypeWrapper一致，只有不带泛型参数的类型才按照实际类型写出
+        boolean isRuntimeTyped = kind == TypeKind.DECLARED
+                && ((DeclaredType) fieldType).getTypeArguments().isEmpty()
+                && !mTypes.asElement(fieldType).getModifiers().contains(Modifier.FINAL);
+
+        if (isAccessible(field, owner, pkg))
+            return new Property(name, alternateNames, typeName, kind, fieldName, fieldName + " = %s", isRuntimeTyped);
+
+        String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        ExecutableElement getter = findMethod(type, pkg, "get" + capitalized, fieldType, false);
+        if (getter == null && kind == TypeKind.BOOLEAN)
+            getter = findMethod(type, pkg, "is" + capitalized, fieldType, false);
+        ExecutableElement setter = findMethod(type, pkg, "set" + capitalized, fieldType, true);
+        if (getter == null || setter == null)
+            return null;
+
+        return new Property(name, alternateNames, typeName, kind,
+                getter.getSimpleName() + "()", setter.getSimpleName() + "(%s)", isRuntimeTyped);
+    }
+
+    /** 在类及其父类中查找可以访问的getter或setter */
+    private ExecutableElement findMethod(TypeElement type, PackageElement pkg, String name, TypeMirror fieldType, boolean isSetter) {
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        for (ExecutableElement method : ElementFilter.methodsIn(mElements.getAllMembers(type))) {
+            if (!method.getSimpleName().contentEquals(name)
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || !isAccessible(method, (TypeElement) method.getEnclosingElement(), pkg))
+                continue;
+
+            ExecutableType methodType = (ExecutableType) mTypes.asMemberOf(declaredType, method);
+            List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+            if (isSetter) {
+                if (parameterTypes.size() == 1 && mTypes.isSameType(parameterTypes.get(0), fieldType))
+                    return method;
+            } else {
+                if (parameterTypes.isEmpty() && mTypes.isSameType(methodType.getReturnType(), fieldType))
+                    return method;
+            }
+        }
+
+        return null;
+    }
+
+    /** 生成的TypeAdapter与数据类在同一个包中，非私有的同包成员和公开成员可以直接访问 */
+    private boolean isAccessible(Element member, TypeElement owner, PackageElement pkg) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE))
+            return false;
+        if (modifiers.contains(Modifier.PUBLIC))
+            return true;
+
+        return mElements.getPackageOf(owner).equals(pkg);
+    }
+
+    /** 类本身以及外部类都不能是私有的 */
+    private boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while (element.getKind().isClass() || element.getKind().isInterface()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE))
+                return false;
+            //非静态内部类需要外部类实例才能创建
+            if (element.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                    && !element.getModifiers().contains(Modifier.STATIC))
+                return false;
+
+            element = element.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    private boolean hasNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE))
+                return true;
+        }
+
+        return false;
+    }
+
+    /** 类型中不能有类型变量，否则无法写出确定的TypeToken */
+    private boolean isSupported(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            case ARRAY:
+                return isSupported(((ArrayType) type).getComponentType());
+            case DECLARED:
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    if (argument.getKind() != TypeKind.WILDCARD && !isSupported(argument))
+                        return false;
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private AnnotationMirror getAnnotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(name))
+                return mirror;
+        }
+
+        return null;
+    }
+
+    private void write(TypeElement type, List<Property> properties) throws IOException {
+        String packageName = mElements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = mElements.getBinaryName(type).toString();
+        String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String adapterName = simpleBinaryName.replace('$', '_') + SUFFIX;
+
+        String source = new AdapterWriter(packageName, adapterName, type.getQualifiedName().toString(), properties).write();
+
+        String qualifiedName = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private List<Property> skip(TypeElement type, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "TypeAdapter not generated, fallback to reflection: " + reason, type);
+        return null;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
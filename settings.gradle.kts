@@ -19,3 +19,5 @@ dependencyResolutionManagement {
 rootProject.name = "HttpLibrary"
 include(":app")
 include(":lib")
+include(":processor")
+include(":benchmark")